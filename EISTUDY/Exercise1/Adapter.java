@@ -1,4 +1,23 @@
 public class Adapter {
+    import java.io.Closeable;
+    import java.io.EOFException;
+    import java.io.IOException;
+    import java.io.InterruptedIOException;
+    import java.nio.ByteBuffer;
+    import java.nio.ByteOrder;
+    import java.nio.channels.FileChannel;
+    import java.nio.file.Files;
+    import java.nio.file.Path;
+    import java.nio.file.Paths;
+    import java.nio.file.StandardOpenOption;
+    import java.util.Locale;
+    import java.util.Map;
+    import java.util.concurrent.ArrayBlockingQueue;
+    import java.util.concurrent.BlockingQueue;
+    import java.util.concurrent.ConcurrentHashMap;
+    import java.util.concurrent.atomic.AtomicReference;
+    import java.util.function.Supplier;
+
     // MediaPlayer.java
 interface MediaPlayer {
     void play(String audioType, String fileName);
@@ -12,25 +31,447 @@ class AudioPlayer implements MediaPlayer {
     }
 }
 
+// PcmFormat.java
+final class PcmFormat {
+    private final int sampleRate;
+    private final int channels;
+    private final int bitsPerSample;
+    private final long dataLength;  // bytes of sample data in the stream
+
+    public PcmFormat(int sampleRate, int channels, int bitsPerSample, long dataLength) {
+        this.sampleRate = sampleRate;
+        this.channels = channels;
+        this.bitsPerSample = bitsPerSample;
+        this.dataLength = dataLength;
+    }
+
+    public int getSampleRate() { return sampleRate; }
+    public int getChannels() { return channels; }
+    public int getBitsPerSample() { return bitsPerSample; }
+    public long getDataLength() { return dataLength; }
+
+    public int getBytesPerFrame() {
+        return channels * ((bitsPerSample + 7) / 8);
+    }
+
+    public long getBytesPerSecond() {
+        return (long) sampleRate * getBytesPerFrame();
+    }
+
+    public PcmFormat withDataLength(long length) {
+        return new PcmFormat(sampleRate, channels, bitsPerSample, length);
+    }
+
+    @Override
+    public String toString() {
+        return sampleRate + " Hz, " + channels + " ch, " + bitsPerSample + " bit";
+    }
+}
+
+// AudioSink.java (Where decoded PCM goes: a device, a file, or nowhere)
+interface AudioSink extends Closeable {
+    void open(PcmFormat format) throws IOException;
+
+    // Consumes every remaining byte of pcm
+    void write(ByteBuffer pcm) throws IOException;
+}
+
+// NullSink.java
+class NullSink implements AudioSink {
+    private long bytes;
+
+    @Override
+    public void open(PcmFormat format) {
+        bytes = 0;
+    }
+
+    @Override
+    public void write(ByteBuffer pcm) {
+        bytes += pcm.remaining();
+        pcm.position(pcm.limit());
+    }
+
+    @Override
+    public void close() {
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+}
+
+// FileSink.java (Writes a WAV file; the header sizes are filled in on close)
+class FileSink implements AudioSink {
+    private final Path path;
+    private FileChannel channel;
+    private PcmFormat format;
+    private long written;
+
+    public FileSink(Path path) {
+        this.path = path;
+    }
+
+    @Override
+    public void open(PcmFormat format) throws IOException {
+        this.format = format;
+        written = 0;
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        channel.write(WavDecoder.header(format, 0));
+    }
+
+    @Override
+    public void write(ByteBuffer pcm) throws IOException {
+        while (pcm.hasRemaining()) {
+            written += channel.write(pcm);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.write(WavDecoder.header(format, written), 0);
+        } finally {
+            channel.close();
+            channel = null;
+        }
+    }
+}
+
+// AudioDecoder.java
+interface AudioDecoder {
+    // Reads the header, leaving the channel at the first sample byte
+    PcmFormat open(FileChannel channel) throws IOException;
+
+    // Turns one chunk of encoded bytes into PCM for the sink; PCM formats pass it straight through
+    default void decode(ByteBuffer encoded, AudioSink sink) throws IOException {
+        sink.write(encoded);
+    }
+}
+
+// WavDecoder.java (RIFF/WAVE files holding uncompressed PCM)
+class WavDecoder implements AudioDecoder {
+    private static final int RIFF = fourCC("RIFF");
+    private static final int WAVE = fourCC("WAVE");
+    private static final int FMT = fourCC("fmt ");
+    private static final int DATA = fourCC("data");
+    private static final int FORMAT_PCM = 1;
+    private static final int FORMAT_EXTENSIBLE = 0xFFFE;
+    private static final int MAX_FMT_SIZE = 1024;  // the largest real one, WAVE_FORMAT_EXTENSIBLE, is 40
+    // Bytes 2-15 of every KSDATAFORMAT_SUBTYPE GUID; bytes 0-1 hold the format code
+    private static final byte[] SUBTYPE_SUFFIX = {
+            0x00, 0x00, 0x00, 0x00, 0x10, 0x00, (byte) 0x80, 0x00, 0x00, (byte) 0xAA, 0x00, 0x38, (byte) 0x9B, 0x71};
+
+    @Override
+    public PcmFormat open(FileChannel channel) throws IOException {
+        ByteBuffer riff = readFully(channel, 12);
+        if (riff.getInt(0) != RIFF || riff.getInt(8) != WAVE) {
+            throw new IOException("Not a WAV file");
+        }
+        PcmFormat format = null;
+        while (true) {
+            ByteBuffer chunk = readFully(channel, 8);
+            int id = chunk.getInt(0);
+            long size = chunk.getInt(4) & 0xFFFFFFFFL;
+            if (id == FMT) {
+                if (size < 16 || size > MAX_FMT_SIZE) {
+                    throw new IOException("Malformed WAV fmt chunk of " + size + " bytes");
+                }
+                ByteBuffer fmt = readFully(channel, (int) size);
+                int encoding = fmt.getShort(0) & 0xFFFF;
+                if (encoding == FORMAT_EXTENSIBLE) {
+                    encoding = subFormat(fmt);
+                    if (encoding < 0) {
+                        throw new IOException("Unrecognized WAVE_FORMAT_EXTENSIBLE SubFormat");
+                    }
+                }
+                if (encoding != FORMAT_PCM) {
+                    throw new IOException("Unsupported WAV encoding " + encoding);
+                }
+                format = new PcmFormat(fmt.getInt(4), fmt.getShort(2), fmt.getShort(14), 0);
+                if (format.getSampleRate() <= 0 || format.getChannels() <= 0 || format.getBitsPerSample() <= 0) {
+                    throw new IOException("Malformed WAV format: " + format);
+                }
+                channel.position(channel.position() + (size & 1));
+            } else if (id == DATA) {
+                if (format == null) {
+                    throw new IOException("WAV data chunk before fmt chunk");
+                }
+                // Files written by a recorder that never finished can claim more than they hold
+                return format.withDataLength(Math.min(size, channel.size() - channel.position()));
+            } else {
+                channel.position(channel.position() + size + (size & 1));
+            }
+        }
+    }
+
+    // The format code in a WAVE_FORMAT_EXTENSIBLE chunk's SubFormat GUID, or -1 if the chunk
+    // is too short to hold one or the GUID is not a standard subtype
+    private static int subFormat(ByteBuffer fmt) {
+        if (fmt.limit() < 40) {
+            return -1;
+        }
+        for (int i = 0; i < SUBTYPE_SUFFIX.length; i++) {
+            if (fmt.get(26 + i) != SUBTYPE_SUFFIX[i]) {
+                return -1;
+            }
+        }
+        return fmt.getShort(24) & 0xFFFF;
+    }
+
+    // The canonical 44-byte header for a PCM WAV file with dataLength bytes of samples
+    public static ByteBuffer header(PcmFormat format, long dataLength) {
+        ByteBuffer header = ByteBuffer.allocate(44).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(RIFF).putInt((int) (36 + dataLength)).putInt(WAVE);
+        header.putInt(FMT).putInt(16).putShort((short) FORMAT_PCM).putShort((short) format.getChannels());
+        header.putInt(format.getSampleRate()).putInt((int) format.getBytesPerSecond());
+        header.putShort((short) format.getBytesPerFrame()).putShort((short) format.getBitsPerSample());
+        header.putInt(DATA).putInt((int) dataLength);
+        return header.flip();
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Truncated WAV header");
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static int fourCC(String id) {
+        return id.charAt(0) | id.charAt(1) << 8 | id.charAt(2) << 16 | id.charAt(3) << 24;
+    }
+}
+
+// PcmDecoder.java (Headerless PCM: the whole file is samples in a known format)
+class PcmDecoder implements AudioDecoder {
+    private final PcmFormat format;
+
+    public PcmDecoder(int sampleRate, int channels, int bitsPerSample) {
+        format = new PcmFormat(sampleRate, channels, bitsPerSample, 0);
+    }
+
+    @Override
+    public PcmFormat open(FileChannel channel) throws IOException {
+        return format.withDataLength(channel.size() - channel.position());
+    }
+}
+
+// PlaybackMetrics.java
+final class PlaybackMetrics {
+    private final PcmFormat format;
+    private final long bytes;
+    private final long nanos;
+    private final int underruns;
+    private final long stallNanos;
+
+    PlaybackMetrics(PcmFormat format, long bytes, long nanos, int underruns, long stallNanos) {
+        this.format = format;
+        this.bytes = bytes;
+        this.nanos = nanos;
+        this.underruns = underruns;
+        this.stallNanos = stallNanos;
+    }
+
+    public PcmFormat getFormat() { return format; }
+    public long getBytes() { return bytes; }
+    public long getNanos() { return nanos; }
+    // Times the sink was ready for more but the reader had no buffer filled yet
+    public int getUnderruns() { return underruns; }
+    public long getStallNanos() { return stallNanos; }
+
+    public double getBytesPerSecond() {
+        return nanos == 0 ? 0 : bytes * 1e9 / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%,d bytes (%s) in %.1f ms, %.1f MB/s, %d underruns (%.1f ms stalled)",
+                bytes, format, nanos / 1e6, getBytesPerSecond() / 1e6, underruns, stallNanos / 1e6);
+    }
+}
+
+// StreamingPlayer.java
+// Streams a file through two direct buffers: a prefetch thread fills one from the
+// FileChannel while the player decodes the other into the sink, and they swap over
+// through two small queues. The player only waits (an underrun) when it outruns the disk.
+class StreamingPlayer implements MediaPlayer {
+    private static final ByteBuffer END = ByteBuffer.allocate(0);
+
+    private final AudioDecoder decoder;
+    private final Supplier<? extends AudioSink> sinks;
+    private final int bufferSize;
+
+    public StreamingPlayer(AudioDecoder decoder, Supplier<? extends AudioSink> sinks, int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size must be positive: " + bufferSize);
+        }
+        this.decoder = decoder;
+        this.sinks = sinks;
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    public void play(String audioType, String fileName) {
+        System.out.println("Playing " + audioType + " file: " + fileName);
+        try {
+            System.out.println("Played " + stream(Paths.get(fileName)));
+        } catch (IOException e) {
+            System.out.println("Could not play " + fileName + ": " + e.getMessage());
+        }
+    }
+
+    public PlaybackMetrics stream(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             AudioSink sink = sinks.get()) {
+            PcmFormat format = decoder.open(channel);
+            sink.open(format);
+            BlockingQueue<ByteBuffer> free = new ArrayBlockingQueue<>(2);
+            BlockingQueue<ByteBuffer> filled = new ArrayBlockingQueue<>(3);  // both buffers plus END
+            free.add(ByteBuffer.allocateDirect(bufferSize));
+            free.add(ByteBuffer.allocateDirect(bufferSize));
+            AtomicReference<IOException> failure = new AtomicReference<>();
+            Thread reader = new Thread(() -> prefetch(channel, format.getDataLength(), free, filled, failure),
+                    "media-prefetch-" + file.getFileName());
+            reader.setDaemon(true);
+            reader.start();
+
+            long bytes = 0;
+            int underruns = 0;
+            long stallNanos = 0;
+            long start = System.nanoTime();
+            try {
+                boolean started = false;
+                while (true) {
+                    ByteBuffer buffer = filled.poll();
+                    if (buffer == null) {
+                        long waitStart = System.nanoTime();
+                        buffer = filled.take();
+                        if (started) {  // waiting for the very first buffer is start-up, not a stall
+                            underruns++;
+                            stallNanos += System.nanoTime() - waitStart;
+                        }
+                    }
+                    started = true;
+                    if (buffer == END) {
+                        break;
+                    }
+                    bytes += buffer.remaining();
+                    decoder.decode(buffer, sink);
+                    free.put(buffer);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Playback of " + file + " interrupted");
+            } finally {
+                reader.interrupt();
+            }
+            if (failure.get() != null) {
+                throw failure.get();
+            }
+            return new PlaybackMetrics(format, bytes, System.nanoTime() - start, underruns, stallNanos);
+        }
+    }
+
+    private static void prefetch(FileChannel channel, long length, BlockingQueue<ByteBuffer> free,
+                                 BlockingQueue<ByteBuffer> filled, AtomicReference<IOException> failure) {
+        try {
+            long remaining = length;
+            boolean eof = false;
+            while (remaining > 0 && !eof) {
+                ByteBuffer buffer = free.take();
+                buffer.clear();
+                if (buffer.capacity() > remaining) {
+                    buffer.limit((int) remaining);
+                }
+                while (buffer.hasRemaining() && !eof) {
+                    eof = channel.read(buffer) < 0;  // a file shorter than its header claims
+                }
+                buffer.flip();
+                remaining -= buffer.remaining();
+                filled.put(buffer);
+            }
+        } catch (IOException e) {
+            failure.set(e);
+        } catch (InterruptedException e) {
+            // the player stopped early
+        } finally {
+            filled.offer(END);
+        }
+    }
+}
+
 // MediaAdapter.java
+// Picks a decoder by audio type and streams through a StreamingPlayer; types without a
+// decoder still go to the plain AudioPlayer. Decoders are shared, so they must be stateless.
 class MediaAdapter implements MediaPlayer {
-    private AudioPlayer audioPlayer;
+    private static final int BUFFER_SIZE = 1 << 18;  // see MediaStreamBenchmark
+
+    private final AudioPlayer audioPlayer;
+    private final Map<String, AudioDecoder> decoders = new ConcurrentHashMap<>();
+    private final Supplier<? extends AudioSink> sinks;
 
     public MediaAdapter() {
+        this(NullSink::new);
+    }
+
+    public MediaAdapter(Supplier<? extends AudioSink> sinks) {
         audioPlayer = new AudioPlayer();
+        this.sinks = sinks;
+        register("WAV", new WavDecoder());
+        register("PCM", new PcmDecoder(44_100, 2, 16));  // CD audio
+    }
+
+    public void register(String audioType, AudioDecoder decoder) {
+        decoders.put(audioType.toUpperCase(Locale.ROOT), decoder);
+    }
+
+    public PlaybackMetrics stream(String audioType, Path file) throws IOException {
+        AudioDecoder decoder = decoders.get(audioType.toUpperCase(Locale.ROOT));
+        if (decoder == null) {
+            throw new IOException("No decoder for " + audioType);
+        }
+        return new StreamingPlayer(decoder, sinks, BUFFER_SIZE).stream(file);
     }
 
     @Override
     public void play(String audioType, String fileName) {
-        audioPlayer.play(audioType, fileName);
+        AudioDecoder decoder = decoders.get(audioType.toUpperCase(Locale.ROOT));
+        if (decoder == null) {
+            audioPlayer.play(audioType, fileName);
+        } else {
+            new StreamingPlayer(decoder, sinks, BUFFER_SIZE).play(audioType, fileName);
+        }
     }
 }
 
 // Main.java
 public class Main {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         MediaAdapter mediaAdapter = new MediaAdapter();
         mediaAdapter.play("MP3", "song.mp3");
+
+        // One second of a 440 Hz tone, written as a WAV file and streamed back
+        Path tone = Files.createTempFile("tone", ".wav");
+        try {
+            PcmFormat format = new PcmFormat(44_100, 1, 16, 0);
+            ByteBuffer samples = ByteBuffer.allocate(format.getSampleRate() * 2).order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < format.getSampleRate(); i++) {
+                samples.putShort((short) (8000 * Math.sin(2 * Math.PI * 440 * i / format.getSampleRate())));
+            }
+            try (FileSink sink = new FileSink(tone)) {
+                sink.open(format);
+                sink.write(samples.flip());
+            }
+            mediaAdapter.play("WAV", tone.toString());
+        } finally {
+            Files.deleteIfExists(tone);
+        }
     }
 }
 
@@ -0,0 +1,121 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+// AggregatorBenchmark.java
+// Checks the streaming aggregators against brute-force recomputation over the same window,
+// then times one AggregatorChain feeding all of them. Compile together with the classes
+// from behaviour,java and run: java AggregatorBenchmark [window] [ticks]
+public class AggregatorBenchmark {
+    private static final long SECOND = 1_000_000_000L;
+
+    public static void main(String[] args) {
+        int window = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int ticks = args.length > 1 ? Integer.parseInt(args[1]) : 20_000_000;
+        verify(window, 20_000);
+        measure(window, ticks);
+    }
+
+    private static void verify(int window, int count) {
+        Random random = new Random(42);
+        RollingVwap vwap = new RollingVwap(window);
+        SimpleMovingAverage sma = new SimpleMovingAverage(window);
+        ExponentialMovingAverage ema = new ExponentialMovingAverage(window);
+        RollingMinMax minMax = new RollingMinMax(window);
+        List<double[]> bars = new ArrayList<>();
+        OhlcBars ohlc = new OhlcBars(SECOND, (symbol, start, open, high, low, close, volume) ->
+                bars.add(new double[] {start, open, high, low, close, volume}));
+        AggregatorChain chain = new AggregatorChain().add(vwap).add(sma).add(ema).add(minMax).add(ohlc);
+
+        double[] prices = new double[count];
+        long[] sizes = new long[count];
+        long[] times = new long[count];
+        Tick tick = new Tick();
+        double expectedEma = Double.NaN;
+        for (int i = 0; i < count; i++) {
+            prices[i] = 100 + random.nextGaussian();
+            sizes[i] = 1 + random.nextInt(500);
+            times[i] = i * (SECOND / 7) + random.nextInt(1000);
+            tick.price = prices[i];
+            tick.size = sizes[i];
+            tick.timestamp = times[i];
+            chain.onTick(tick);
+
+            expectedEma = i == 0 ? prices[i] : expectedEma + 2.0 / (window + 1) * (prices[i] - expectedEma);
+            double notional = 0;
+            long volume = 0;
+            double sum = 0;
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            int first = Math.max(0, i - window + 1);
+            for (int j = first; j <= i; j++) {
+                notional += prices[j] * sizes[j];
+                volume += sizes[j];
+                sum += prices[j];
+                min = Math.min(min, prices[j]);
+                max = Math.max(max, prices[j]);
+            }
+            check("vwap", i, vwap.getVwap(), notional / volume);
+            check("sma", i, sma.getAverage(), sum / (i - first + 1));
+            check("ema", i, ema.getAverage(), expectedEma);
+            check("min", i, minMax.getMin(), min);
+            check("max", i, minMax.getMax(), max);
+        }
+
+        // Every completed bar must match the ticks whose timestamps fall into its second
+        int index = 0;
+        for (double[] bar : bars) {
+            long start = (long) bar[0];
+            double high = Double.NEGATIVE_INFINITY;
+            double low = Double.POSITIVE_INFINITY;
+            long volume = 0;
+            double open = prices[index];
+            double close = open;
+            for (; index < count && times[index] < start + SECOND; index++) {
+                high = Math.max(high, prices[index]);
+                low = Math.min(low, prices[index]);
+                volume += sizes[index];
+                close = prices[index];
+            }
+            check("open", index, bar[1], open);
+            check("high", index, bar[2], high);
+            check("low", index, bar[3], low);
+            check("close", index, bar[4], close);
+            check("volume", index, bar[5], volume);
+        }
+        System.out.printf("All aggregators match brute force over %,d ticks (window %d, %,d bars).%n",
+                count, window, bars.size());
+    }
+
+    private static void check(String name, int tick, double actual, double expected) {
+        if (Math.abs(actual - expected) > 1e-6 * Math.max(1, Math.abs(expected))) {
+            throw new IllegalStateException(name + " at tick " + tick + ": " + actual + " != " + expected);
+        }
+    }
+
+    private static void measure(int window, int ticks) {
+        RollingVwap vwap = new RollingVwap(window);
+        SimpleMovingAverage sma = new SimpleMovingAverage(window);
+        ExponentialMovingAverage ema = new ExponentialMovingAverage(window);
+        RollingMinMax minMax = new RollingMinMax(window);
+        long[] bars = new long[1];
+        OhlcBars ohlc = new OhlcBars(SECOND, (symbol, start, open, high, low, close, volume) -> bars[0]++);
+        AggregatorChain chain = new AggregatorChain().add(vwap).add(sma).add(ema).add(minMax).add(ohlc);
+        Tick tick = new Tick();
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < ticks; i++) {
+                tick.price = 100 + (i * 31 & 1023) * 0.01;
+                tick.size = 1 + (i & 63);
+                tick.timestamp = i * 1000L;
+                chain.onTick(tick);
+            }
+            long elapsed = System.nanoTime() - start;
+            System.out.printf(Locale.ROOT, "chain of 5 aggregators: %,.0f ticks/s (%.1f ns/tick), window %d%n",
+                    ticks * 1e9 / elapsed, (double) elapsed / ticks, window);
+        }
+        System.out.printf(Locale.ROOT, "(vwap %.4f, sma %.4f, ema %.4f, min %.2f, max %.2f, %d bars)%n",
+                vwap.getVwap(), sma.getAverage(), ema.getAverage(), minMax.getMin(), minMax.getMax(), bars[0]);
+    }
+}
@@ -0,0 +1,107 @@
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+
+// LoggerBenchmark.java
+// Latency of Logger.info() as seen by the caller, under 16 producer threads writing to a
+// RollingFileSink, next to a synchronized println to a file as the baseline. Every call is
+// timed; p50/p99/p99.9/max are taken over all of them after a warmup round. Also reports
+// the cost of a disabled debug() call. Compile together with Main.java and run:
+// java LoggerBenchmark [calls-per-thread] [threads]
+public class LoggerBenchmark {
+    interface Call {
+        void log(int thread, int i);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int calls = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        Path directory = Files.createTempDirectory("logger-benchmark");
+        try {
+            Logger logger = Logger.getInstance();
+            logger.setSink(new RollingFileSink(directory.resolve("app.log"), 64L << 20, 3));
+            Call async = (thread, i) -> logger.info("order {} filled by worker {}", i, thread);
+            run("warmup", async, threads, calls / 4);
+            run("Logger.info", async, threads, calls);
+            logger.flush();
+
+            try (PrintStream out = new PrintStream(new FileOutputStream(directory.resolve("sync.log").toFile()), false)) {
+                Call sync = (thread, i) -> out.println(java.time.Instant.now() + " INFO  [" + Thread.currentThread().getName()
+                        + "] order " + i + " filled by worker " + thread);
+                run("warmup", sync, threads, calls / 4);
+                run("println", sync, threads, calls);
+            }
+
+            long start = System.nanoTime();
+            for (int i = 0; i < 10_000_000; i++) {
+                logger.debug("never formatted {} {}", directory, name(i));
+            }
+            System.out.printf(Locale.ROOT, "disabled debug(): %.2f ns/call%n", (System.nanoTime() - start) / 1e7);
+
+            try (Stream<Path> files = Files.list(directory)) {
+                files.sorted().forEach(file -> System.out.println("  " + file.getFileName() + " " + file.toFile().length() + " bytes"));
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+            }
+        }
+    }
+
+    private static void run(String name, Call call, int threads, int calls) throws InterruptedException {
+        long[][] latencies = new long[threads][calls];
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long[] mine = latencies[thread];
+                for (int i = 0; i < calls; i++) {
+                    long before = System.nanoTime();
+                    call.log(thread, i);
+                    mine[i] = System.nanoTime() - before;
+                }
+            }, "producer-" + t);
+            workers[t].start();
+        }
+        long began = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - began;
+        if (name.equals("warmup")) {
+            return;
+        }
+        long[] all = new long[threads * calls];
+        for (int t = 0; t < threads; t++) {
+            System.arraycopy(latencies[t], 0, all, t * calls, calls);
+        }
+        Arrays.sort(all);
+        System.out.printf(Locale.ROOT, "%-12s %d threads: p50 %,d ns, p99 %,d ns, p99.9 %,d ns, max %,d ns, %,.0f calls/s%n",
+                name, threads, percentile(all, 0.50), percentile(all, 0.99), percentile(all, 0.999),
+                all[all.length - 1], all.length * 1e9 / elapsed);
+    }
+
+    private static final String[] NAMES = {"alpha", "beta", "gamma", "delta"};
+
+    private static String name(int i) {
+        return NAMES[i & 3];
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        return sorted[(int) Math.min(sorted.length - 1, (long) (sorted.length * fraction))];
+    }
+}
@@ -1,20 +1,448 @@
 // Logger.java
+// Asynchronous logger. Callers only claim a slot in a preallocated ring, copy their level,
+// pattern and arguments into it and return; one background writer formats the entries,
+// batches them into a direct buffer and hands each batch to a LogSink in a single write.
+// Messages are "{}"-parameterized and formatted only if their level is enabled, on the
+// writer thread, so arguments should not be mutated after the call. When the ring is full,
+// callers wait for the writer rather than dropping entries.
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
 class Logger {
-    private static Logger instance;
+    public enum Level {
+        DEBUG, INFO, WARN, ERROR
+    }
+
+    private static final int CAPACITY = 1 << 16;  // entries; a power of two
+    private static final int BATCH_BYTES = 256 * 1024;
+
+    // A reusable ring slot; fields are written by the claiming producer, read by the writer
+    private static class Entry {
+        long timestamp;
+        Level level;
+        String thread;
+        String pattern;
+        Object arg0;
+        Object arg1;
+        Object[] args;
+        int arity;
+    }
+
+    private final Entry[] ring = new Entry[CAPACITY];
+    private final AtomicLongArray published = new AtomicLongArray(CAPACITY);  // sequence held by each slot
+    private final AtomicLong claimed = new AtomicLong();
+    private volatile long consumed;  // entries copied out of the ring
+    private volatile long written;   // entries handed to the sink; flush() waits on this
+    private volatile boolean sleeping;  // the writer is parked until a producer unparks it
+    private volatile int threshold = Level.INFO.ordinal();
+    private volatile LogSink sink = new ConsoleSink();
+    private final Thread writer;
 
     private Logger() {
-        // private constructor to prevent instantiation
+        for (int i = 0; i < CAPACITY; i++) {
+            ring[i] = new Entry();
+            published.set(i, -1);
+        }
+        writer = new Thread(this::writeLoop, "logger-writer");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "logger-flush"));
+    }
+
+    // Lazy, thread-safe initialization through the class loader
+    private static class Holder {
+        static final Logger INSTANCE = new Logger();
     }
 
     public static Logger getInstance() {
-        if (instance == null) {
-            instance = new Logger();
-        }
-        return instance;
+        return Holder.INSTANCE;
+    }
+
+    public void setLevel(Level level) {
+        threshold = level.ordinal();
+    }
+
+    public boolean isEnabled(Level level) {
+        return level.ordinal() >= threshold;
+    }
+
+    // Entries still queued go to the new sink; the old one is closed by the writer
+    public void setSink(LogSink sink) {
+        this.sink = sink;
     }
 
     public void log(String message) {
-        System.out.println("Log: " + message);
+        info(message);
+    }
+
+    public void debug(String message) {
+        if (isEnabled(Level.DEBUG)) {
+            publish(Level.DEBUG, message, null, null, null, 0);
+        }
+    }
+
+    public void debug(String pattern, Object arg) {
+        if (isEnabled(Level.DEBUG)) {
+            publish(Level.DEBUG, pattern, arg, null, null, 1);
+        }
+    }
+
+    public void debug(String pattern, Object arg0, Object arg1) {
+        if (isEnabled(Level.DEBUG)) {
+            publish(Level.DEBUG, pattern, arg0, arg1, null, 2);
+        }
+    }
+
+    public void info(String message) {
+        if (isEnabled(Level.INFO)) {
+            publish(Level.INFO, message, null, null, null, 0);
+        }
+    }
+
+    public void info(String pattern, Object arg) {
+        if (isEnabled(Level.INFO)) {
+            publish(Level.INFO, pattern, arg, null, null, 1);
+        }
+    }
+
+    public void info(String pattern, Object arg0, Object arg1) {
+        if (isEnabled(Level.INFO)) {
+            publish(Level.INFO, pattern, arg0, arg1, null, 2);
+        }
+    }
+
+    public void warn(String message) {
+        if (isEnabled(Level.WARN)) {
+            publish(Level.WARN, message, null, null, null, 0);
+        }
+    }
+
+    public void warn(String pattern, Object arg) {
+        if (isEnabled(Level.WARN)) {
+            publish(Level.WARN, pattern, arg, null, null, 1);
+        }
+    }
+
+    public void warn(String pattern, Object arg0, Object arg1) {
+        if (isEnabled(Level.WARN)) {
+            publish(Level.WARN, pattern, arg0, arg1, null, 2);
+        }
+    }
+
+    public void error(String message) {
+        if (isEnabled(Level.ERROR)) {
+            publish(Level.ERROR, message, null, null, null, 0);
+        }
+    }
+
+    // A trailing Throwable argument is printed with its stack trace
+    public void error(String pattern, Object arg) {
+        if (isEnabled(Level.ERROR)) {
+            publish(Level.ERROR, pattern, arg, null, null, 1);
+        }
+    }
+
+    public void error(String pattern, Object arg0, Object arg1) {
+        if (isEnabled(Level.ERROR)) {
+            publish(Level.ERROR, pattern, arg0, arg1, null, 2);
+        }
+    }
+
+    // Any number of arguments; callers on hot paths should prefer the fixed-arity overloads,
+    // which do not allocate an array when the level is disabled
+    public void log(Level level, String pattern, Object... args) {
+        if (isEnabled(level)) {
+            publish(level, pattern, null, null, args, -1);
+        }
+    }
+
+    private void publish(Level level, String pattern, Object arg0, Object arg1, Object[] args, int arity) {
+        long sequence = claimed.getAndIncrement();
+        while (sequence - consumed >= CAPACITY) {
+            if (!writer.isAlive()) {
+                return;  // nothing will ever drain the ring, so drop rather than hang the caller
+            }
+            LockSupport.parkNanos(10_000);  // ring full: wait for the writer
+        }
+        Entry entry = ring[(int) sequence & (CAPACITY - 1)];
+        entry.timestamp = System.currentTimeMillis();
+        entry.level = level;
+        entry.thread = Thread.currentThread().getName();
+        entry.pattern = pattern;
+        entry.arg0 = arg0;
+        entry.arg1 = arg1;
+        entry.args = args;
+        entry.arity = arity;
+        // A full write before reading sleeping: with the writer's write of sleeping before its
+        // re-check, either the writer sees this entry or this sees the writer asleep
+        published.set((int) sequence & (CAPACITY - 1), sequence);
+        if (sleeping) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    // Blocks until everything logged before the call has been written and flushed
+    public void flush() {
+        long target = claimed.get();
+        while (written < target && writer.isAlive()) {
+            LockSupport.parkNanos(100_000);
+        }
+        synchronized (this) {
+            try {
+                sink.flush();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    // Formatting of the timestamp is cached per millisecond; writer thread only
+    private long lastTimestamp = -1;
+    private String lastInstant;
+
+    private void writeLoop() {
+        ByteBuffer batch = ByteBuffer.allocateDirect(BATCH_BYTES);
+        StringBuilder line = new StringBuilder(256);
+        LogSink current = sink;
+        long next = 0;
+        int idle = 0;
+        while (true) {
+            int slot = (int) next & (CAPACITY - 1);
+            if (published.get(slot) == next) {
+                Entry entry = ring[slot];
+                line.setLength(0);
+                try {
+                    format(entry, line);
+                } catch (RuntimeException e) {
+                    // e.g. an argument whose toString() throws; one bad entry must not stop the writer
+                    line.setLength(0);
+                    line.append(lastInstant).append(' ').append(entry.level)
+                            .append(entry.level.name().length() == 4 ? "  [" : " [").append(entry.thread)
+                            .append("] ").append(entry.pattern).append(" [unformattable: ")
+                            .append(e.getClass().getName()).append(']').append(System.lineSeparator());
+                }
+                entry.pattern = null;  // let arguments be collected
+                entry.arg0 = null;
+                entry.arg1 = null;
+                entry.args = null;
+                if (line.length() > batch.remaining()) {
+                    current = write(current, batch);
+                    written = next;
+                }
+                if (!putAscii(line, batch)) {
+                    byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+                    if (bytes.length > batch.remaining()) {
+                        current = write(current, batch);
+                        written = next;
+                    }
+                    if (bytes.length > batch.capacity()) {
+                        current = write(current, ByteBuffer.wrap(bytes).position(bytes.length));  // too big to batch
+                    } else {
+                        batch.put(bytes);
+                    }
+                }
+                consumed = ++next;
+                idle = 0;
+            } else if (batch.position() > 0) {
+                current = write(current, batch);
+                written = next;
+            } else if (written != next) {
+                written = next;  // the last entry went straight to the sink, bypassing the batch
+            } else if (++idle > 100) {
+                // Idle: sleep until a producer publishes, re-checking after announcing it
+                sleeping = true;
+                if (published.get(slot) != next) {
+                    LockSupport.park(this);
+                }
+                sleeping = false;
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    // Writes the batch from its start to its position and clears it, switching to a newly set
+    // sink first
+    private LogSink write(LogSink current, ByteBuffer batch) {
+        synchronized (this) {
+            LogSink latest = sink;
+            try {
+                if (latest != current) {
+                    current.close();
+                    current = latest;
+                }
+                batch.flip();
+                current.write(batch);
+            } catch (IOException e) {
+                e.printStackTrace();  // nowhere better to report a failing log sink
+            }
+            batch.clear();
+            return current;
+        }
+    }
+
+    // Copies the line byte for byte if it is plain ASCII and fits; false leaves the batch as it was
+    private static boolean putAscii(StringBuilder line, ByteBuffer batch) {
+        int length = line.length();
+        if (length > batch.remaining()) {
+            return false;
+        }
+        int start = batch.position();
+        for (int i = 0; i < length; i++) {
+            char c = line.charAt(i);
+            if (c >= 0x80) {
+                batch.position(start);
+                return false;
+            }
+            batch.put(start + i, (byte) c);
+        }
+        batch.position(start + length);
+        return true;
+    }
+
+    private void format(Entry entry, StringBuilder line) {
+        if (entry.timestamp != lastTimestamp) {
+            lastTimestamp = entry.timestamp;
+            lastInstant = Instant.ofEpochMilli(entry.timestamp).toString();
+        }
+        line.append(lastInstant).append(' ').append(entry.level);
+        if (entry.level.name().length() == 4) {
+            line.append(' ');
+        }
+        line.append(" [").append(entry.thread).append("] ");
+        int arity = entry.arity >= 0 ? entry.arity : entry.args == null ? 0 : entry.args.length;
+        String pattern = entry.pattern;
+        int argument = 0;
+        int from = 0;
+        int at;
+        while (argument < arity && (at = pattern.indexOf("{}", from)) >= 0) {
+            line.append(pattern, from, at).append(argument(entry, argument++));
+            from = at + 2;
+        }
+        line.append(pattern, from, pattern.length()).append(System.lineSeparator());
+        // An argument left over after the placeholders is printed as a stack trace if it is one
+        Object extra = argument < arity ? argument(entry, arity - 1) : null;
+        if (extra instanceof Throwable) {
+            StringWriter trace = new StringWriter();
+            ((Throwable) extra).printStackTrace(new PrintWriter(trace));
+            line.append(trace);
+        }
+    }
+
+    private static Object argument(Entry entry, int index) {
+        if (entry.arity < 0) {
+            return entry.args[index];
+        }
+        return index == 0 ? entry.arg0 : entry.arg1;
+    }
+}
+
+// LogSink.java
+// Destination of the Logger's batches; only the writer thread and flush() call it
+interface LogSink {
+    void write(ByteBuffer batch) throws IOException;
+
+    void flush() throws IOException;
+
+    void close() throws IOException;
+}
+
+// ConsoleSink.java
+class ConsoleSink implements LogSink {
+    private final WritableByteChannel out = Channels.newChannel(System.out);
+
+    @Override
+    public void write(ByteBuffer batch) throws IOException {
+        while (batch.hasRemaining()) {
+            out.write(batch);
+        }
+    }
+
+    @Override
+    public void flush() {
+        System.out.flush();
+    }
+
+    @Override
+    public void close() {
+        System.out.flush();  // never closes System.out
+    }
+}
+
+// RollingFileSink.java
+// Appends to <file>; once a batch would take it past maxBytes, <file> becomes <file>.1, older
+// rolls shift up by one, and anything beyond <file>.<maxRolls> is deleted.
+class RollingFileSink implements LogSink {
+    private final Path path;
+    private final long maxBytes;
+    private final int maxRolls;
+    private FileChannel channel;
+    private long size;
+
+    public RollingFileSink(Path path, long maxBytes, int maxRolls) throws IOException {
+        this.path = path;
+        this.maxBytes = maxBytes;
+        this.maxRolls = maxRolls;
+        open();
+    }
+
+    private void open() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        size = channel.size();
+    }
+
+    @Override
+    public void write(ByteBuffer batch) throws IOException {
+        if (size > 0 && size + batch.remaining() > maxBytes) {
+            roll();
+        }
+        while (batch.hasRemaining()) {
+            size += channel.write(batch);
+        }
+    }
+
+    private void roll() throws IOException {
+        channel.close();
+        Files.deleteIfExists(rolled(maxRolls));
+        for (int i = maxRolls - 1; i >= 1; i--) {
+            if (Files.exists(rolled(i))) {
+                Files.move(rolled(i), rolled(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (maxRolls > 0) {
+            Files.move(path, rolled(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.delete(path);
+        }
+        open();
+    }
+
+    private Path rolled(int index) {
+        return path.resolveSibling(path.getFileName() + "." + index);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        channel.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
     }
 }
 
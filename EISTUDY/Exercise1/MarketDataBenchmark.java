@@ -0,0 +1,89 @@
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Random;
+
+// MarketDataBenchmark.java
+// Throughput and allocation benchmark for MarketDataEngine.publish. A plain main, not JMH:
+// one JVM, no forks, so compare numbers only between runs on the same machine. Warmup and
+// measurement iterations, ticks/s, and bytes allocated per tick read from the thread's
+// allocation counter; deliveries feed a checksum that is printed, so none can be dropped. Compile
+// together with the classes from behaviour,java and run:
+// java MarketDataBenchmark [symbols] [listeners-per-symbol] [ticks-per-iteration]
+// Fails if steady-state publishing allocates.
+public class MarketDataBenchmark {
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASUREMENT_ITERATIONS = 5;
+
+    // Folds every tick into a running checksum, so the JIT cannot drop the delivery
+    static class Accumulator implements TickListener {
+        long checksum;
+
+        @Override
+        public void onTick(Tick tick) {
+            checksum += tick.getTimestamp() ^ tick.getSize() ^ Double.doubleToRawLongBits(tick.getPrice());
+        }
+    }
+
+    public static void main(String[] args) {
+        int symbols = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int listenersPerSymbol = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int ticks = args.length > 2 ? Integer.parseInt(args[2]) : 10_000_000;
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        MarketDataEngine engine = new MarketDataEngine();
+        Random random = new Random(42);
+        int[] ids = new int[symbols];
+        Accumulator[] accumulators = new Accumulator[symbols * listenersPerSymbol];
+        for (int i = 0; i < symbols; i++) {
+            ids[i] = random.nextInt(Integer.MAX_VALUE);  // sparse, exchange-style instrument ids
+            engine.addSymbol(ids[i], "SYM" + i);
+            for (int l = 0; l < listenersPerSymbol; l++) {
+                accumulators[i * listenersPerSymbol + l] = new Accumulator();
+                engine.subscribe(ids[i], accumulators[i * listenersPerSymbol + l]);
+            }
+        }
+        // A precomputed symbol sequence keeps the random generator out of the measurement
+        int[] sequence = new int[1 << 16];
+        for (int i = 0; i < sequence.length; i++) {
+            sequence[i] = ids[random.nextInt(symbols)];
+        }
+
+        double[] scores = new double[MEASUREMENT_ITERATIONS];
+        double worstBytesPerTick = 0;
+        for (int iteration = 0; iteration < WARMUP_ITERATIONS + MEASUREMENT_ITERATIONS; iteration++) {
+            long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+            long start = System.nanoTime();
+            for (int i = 0; i < ticks; i++) {
+                engine.publish(sequence[i & (sequence.length - 1)], start + i, 100.0 + (i & 1023) * 0.01, 100 + (i & 7));
+            }
+            long elapsed = System.nanoTime() - start;
+            long allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+            double bytesPerTick = (double) allocated / ticks;
+            boolean warmup = iteration < WARMUP_ITERATIONS;
+            System.out.printf(Locale.ROOT, "%s %d: %,14.0f ticks/s, %.4f B/tick%n",
+                    warmup ? "Warmup" : "Iteration", warmup ? iteration + 1 : iteration - WARMUP_ITERATIONS + 1,
+                    ticks * 1e9 / elapsed, bytesPerTick);
+            if (!warmup) {
+                scores[iteration - WARMUP_ITERATIONS] = ticks * 1e9 / elapsed;
+                worstBytesPerTick = Math.max(worstBytesPerTick, bytesPerTick);
+            }
+        }
+
+        long checksum = 0;
+        for (Accumulator accumulator : accumulators) {
+            checksum += accumulator.checksum;
+        }
+        double mean = 0;
+        for (double score : scores) {
+            mean += score / scores.length;
+        }
+        System.out.printf(Locale.ROOT, "publish: %,.0f ticks/s, %d symbols x %d listeners, %.4f B/tick (checksum %x)%n",
+                mean, symbols, listenersPerSymbol, worstBytesPerTick, checksum);
+        // The only allocation tolerated is the counter's own bookkeeping, well under a byte a tick
+        if (worstBytesPerTick >= 0.01) {
+            throw new IllegalStateException("Steady-state publishing allocated " + worstBytesPerTick + " B/tick");
+        }
+        System.out.println("Zero allocation in steady state.");
+    }
+}
@@ -0,0 +1,92 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.locks.LockSupport;
+
+// MediaStreamBenchmark.java
+// Streams a large generated WAV file through MediaAdapter's pipeline for several buffer
+// sizes. Compile together with Adapter.java and run:
+// java MediaStreamBenchmark [megabytes] [device-MB/s] [buffer sizes in KB, e.g. 16,64,256,1024]
+// "null" drains into a NullSink as fast as it can, so it measures read throughput and counts
+// every time the sink had to wait for the disk. "device" drains at a fixed rate like a sound
+// card would; underruns there are audible stalls and should stay at zero. Finally the file is
+// played into a FileSink and compared byte for byte with the source.
+public class MediaStreamBenchmark {
+    public static void main(String[] args) throws IOException {
+        int megabytes = args.length > 0 ? Integer.parseInt(args[0]) : 256;
+        int deviceRate = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        String[] sizes = (args.length > 2 ? args[2] : "16,64,256,1024").split(",");
+        Path source = Files.createTempFile("media-benchmark", ".wav");
+        Path copy = Files.createTempFile("media-benchmark-copy", ".wav");
+        try {
+            PcmFormat format = new PcmFormat(48_000, 2, 16, 0);
+            long start = System.nanoTime();
+            write(source, format, megabytes * (1L << 20));
+            System.out.printf(Locale.ROOT, "Wrote %,d MB of %s in %d ms%n",
+                    megabytes, format, (System.nanoTime() - start) / 1_000_000);
+
+            for (String size : sizes) {
+                int bufferSize = Integer.parseInt(size.trim()) << 10;
+                AudioDecoder decoder = new WavDecoder();
+                PlaybackMetrics fast = new StreamingPlayer(decoder, NullSink::new, bufferSize).stream(source);
+                PlaybackMetrics paced = new StreamingPlayer(decoder, () -> new DeviceSink(deviceRate * 1e6), bufferSize)
+                        .stream(source);
+                System.out.printf(Locale.ROOT, "%5d KB buffers  null: %,8.1f MB/s %,6d underruns   "
+                                + "device @ %d MB/s: %,6d underruns (%.1f ms stalled)%n",
+                        bufferSize >> 10, fast.getBytesPerSecond() / 1e6, fast.getUnderruns(),
+                        deviceRate, paced.getUnderruns(), paced.getStallNanos() / 1e6);
+            }
+
+            new MediaAdapter(() -> new FileSink(copy)).stream("WAV", source);
+            long mismatch = Files.mismatch(source, copy);
+            if (mismatch != -1) {
+                throw new IllegalStateException("FileSink copy differs from the source at byte " + mismatch);
+            }
+            System.out.println("FileSink copy matches the source.");
+        } finally {
+            Files.deleteIfExists(source);
+            Files.deleteIfExists(copy);
+        }
+    }
+
+    private static void write(Path path, PcmFormat format, long bytes) throws IOException {
+        Random random = new Random(42);
+        byte[] chunk = new byte[1 << 20];
+        try (FileSink sink = new FileSink(path)) {
+            sink.open(format);
+            for (long written = 0; written < bytes; written += chunk.length) {
+                random.nextBytes(chunk);
+                sink.write(ByteBuffer.wrap(chunk, 0, (int) Math.min(chunk.length, bytes - written)));
+            }
+        }
+    }
+
+    // Consumes at a fixed byte rate, as a sound card pulls samples at the stream's rate
+    private static class DeviceSink extends NullSink {
+        private final double bytesPerSecond;
+        private long start;
+
+        DeviceSink(double bytesPerSecond) {
+            this.bytesPerSecond = bytesPerSecond;
+        }
+
+        @Override
+        public void open(PcmFormat format) {
+            super.open(format);
+            start = System.nanoTime();
+        }
+
+        @Override
+        public void write(ByteBuffer pcm) {
+            super.write(pcm);
+            long due = start + (long) (getBytes() * 1e9 / bytesPerSecond);
+            long now;
+            while ((now = System.nanoTime()) < due) {
+                LockSupport.parkNanos(due - now);
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+// PaymentPipelineBenchmark.java
+// Throughput of PaymentPipeline against StubPaymentProvider: a 2 ms round trip per batch,
+// 1% failed batches, 0.2% hung batches and 2% declines, with 5% of checkouts retried under
+// the same idempotency key. The baseline pays one at a time through the same stub. Checks
+// that every payment completes, retries share a result and no key is charged twice.
+// Compile together with stratergy.java and run:
+// java PaymentPipelineBenchmark [payments] [client-threads]
+public class PaymentPipelineBenchmark {
+    public static void main(String[] args) throws InterruptedException {
+        int payments = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+
+        StubPaymentProvider sequentialStub = new StubPaymentProvider(2_000, 5, 0, 0, 0);
+        int sequential = 500;
+        long start = System.nanoTime();
+        for (int i = 0; i < sequential; i++) {
+            try {
+                sequentialStub.submitBatch(List.of(new PaymentRequest("seq-" + i, new CreditCardPayment("1234"), 10)));
+            } catch (java.io.IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        System.out.printf(Locale.ROOT, "one at a time: %,10.0f payments/s%n", sequential * 1e9 / (System.nanoTime() - start));
+
+        StubPaymentProvider cards = new StubPaymentProvider(2_000, 5, 0.01, 0.002, 0.02);
+        StubPaymentProvider paypal = new StubPaymentProvider(2_000, 5, 0.01, 0.002, 0.02);
+        PaymentPipeline pipeline = new PaymentPipeline(500, 2_000, 100, 5, 10, 1_000_000, 32);
+        pipeline.registerProvider(CreditCardPayment.class, cards);
+        pipeline.registerProvider(PayPalPayment.class, paypal);
+        PaymentStrategy card = new CreditCardPayment("1234");
+        PaymentStrategy wallet = new PayPalPayment("email@example.com");
+
+        List<List<CompletableFuture<PaymentResult>>> results = new ArrayList<>();
+        List<List<CompletableFuture<PaymentResult>>> retries = new ArrayList<>();
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            int client = c;
+            List<CompletableFuture<PaymentResult>> mine = new ArrayList<>();
+            List<CompletableFuture<PaymentResult>> retried = new ArrayList<>();
+            results.add(mine);
+            retries.add(retried);
+            Thread thread = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    ready.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = client; i < payments; i += clients) {
+                    String key = "order-" + i;
+                    PaymentStrategy strategy = (i & 1) == 0 ? card : wallet;
+                    mine.add(pipeline.payAsync(key, strategy, 100 + i % 900));
+                    if (random.nextInt(100) < 5) {
+                        retried.add(pipeline.payAsync(key, strategy, 100 + i % 900));
+                    } else {
+                        retried.add(null);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start = System.nanoTime();
+        ready.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        int[] statuses = new int[PaymentResult.Status.values().length];
+        long attempts = 0;
+        for (int c = 0; c < clients; c++) {
+            for (int i = 0; i < results.get(c).size(); i++) {
+                PaymentResult result = results.get(c).get(i).join();
+                CompletableFuture<PaymentResult> retry = retries.get(c).get(i);
+                if (retry != null && retry.join() != result) {
+                    throw new IllegalStateException("A retried checkout got a different result: " + result);
+                }
+                statuses[result.getStatus().ordinal()]++;
+                attempts += result.getAttempts();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        pipeline.close();
+
+        System.out.printf(Locale.ROOT, "pipeline:      %,10.0f payments/s (%,d payments, %d clients, %,d batches)%n",
+                payments * 1e9 / elapsed, payments, clients, cards.getBatches() + paypal.getBatches());
+        System.out.printf(Locale.ROOT, "succeeded %,d, declined %,d, failed %,d, %.3f attempts per payment, %,d keys replayed on resend%n",
+                statuses[0], statuses[1], statuses[2], (double) attempts / payments,
+                cards.getReplayedKeys() + paypal.getReplayedKeys());
+        if (cards.getChargedKeys() + paypal.getChargedKeys() > payments) {
+            throw new IllegalStateException("More keys charged than payments made");
+        }
+        System.out.println("Every payment completed; no key was charged twice.");
+    }
+}
@@ -0,0 +1,150 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// PizzaBenchmark.java
+// Recursive vs flattened evaluation of Pizza decorator chains. A plain main, not JMH: one
+// JVM, no forks, results kept alive through a sink, so compare numbers only between runs on
+// the same machine. For each chain depth, warmup and measurement iterations of getCost()
+// plus getDescription() on the decorator chain and on its PricedPizza, mean +- 99.9%
+// confidence half-width in ns/op, written to a small JSON file. Also times pricing a batch
+// of orders recursively, compiling it in parallel, and compiling it again from the memo.
+// Compile together with decorator.java and run:
+// java PizzaBenchmark [results.json]
+public class PizzaBenchmark {
+    private static final int[] DEPTHS = {1, 2, 5, 10, 20, 50, 100};
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASUREMENT_ITERATIONS = 5;
+    private static final long ITERATION_NANOS = 200_000_000L;
+
+    private static long sink;  // keeps results alive so the JIT cannot drop the calls
+
+    public static void main(String[] args) throws IOException {
+        String output = args.length > 0 ? args[0] : "pizza-benchmark.json";
+        List<String> results = new ArrayList<>();
+        for (int depth : DEPTHS) {
+            Pizza chain = chain(depth);
+            Pizza priced = PricedPizza.of(chain);
+            if (priced.getCost() != chain.getCost() || !priced.getDescription().equals(chain.getDescription())) {
+                throw new IllegalStateException("Flattened pizza differs from its chain at depth " + depth);
+            }
+            for (String mode : new String[] {"recursive", "flattened"}) {
+                Pizza target = mode.equals("recursive") ? chain : priced;
+                double[] scores = measure(target);
+                double mean = mean(scores);
+                double error = error(scores, mean);
+                System.out.printf(Locale.ROOT, "%-9s depth %3d: %,10.1f +- %,8.1f ns/op%n", mode, depth, mean, error);
+                results.add(toJson(mode, depth, scores, mean, error));
+            }
+        }
+        try (Writer writer = Files.newBufferedWriter(Paths.get(output), StandardCharsets.UTF_8)) {
+            writer.write("[\n" + String.join(",\n", results) + "\n]\n");
+        }
+        System.out.println("Results written to " + output);
+        batch();
+    }
+
+    private static Pizza chain(int depth) {
+        Pizza pizza = new BasicPizza();
+        for (int i = 0; i < depth; i++) {
+            pizza = new CheeseDecorator(pizza);
+        }
+        return pizza;
+    }
+
+    private static double[] measure(Pizza pizza) {
+        double[] scores = new double[MEASUREMENT_ITERATIONS];
+        for (int iteration = 0; iteration < WARMUP_ITERATIONS + MEASUREMENT_ITERATIONS; iteration++) {
+            long ops = 0;
+            long start = System.nanoTime();
+            long elapsed;
+            do {
+                for (int i = 0; i < 1_000; i++) {
+                    sink += (long) pizza.getCost() + pizza.getDescription().length();
+                }
+                ops += 1_000;
+                elapsed = System.nanoTime() - start;
+            } while (elapsed < ITERATION_NANOS);
+            if (iteration >= WARMUP_ITERATIONS) {
+                scores[iteration - WARMUP_ITERATIONS] = (double) elapsed / ops;
+            }
+        }
+        return scores;
+    }
+
+    // A day of orders: chains of 1-100 toppings, priced one at a time and in a parallel pass
+    private static void batch() {
+        List<Pizza> orders = new ArrayList<>();
+        for (int i = 0; i < 200_000; i++) {
+            orders.add(chain(1 + i % 100));
+        }
+        for (int round = 0; round < 3; round++) {
+            // Fresh chains each round, so "compiled" never hits the memo
+            for (int i = 0; i < orders.size(); i++) {
+                orders.set(i, chain(1 + i % 100));
+            }
+            long start = System.nanoTime();
+            double sequential = 0;
+            for (Pizza order : orders) {
+                sequential += order.getCost();
+                sink += order.getDescription().length();
+            }
+            long recursiveNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            PricedPizza[] priced = PizzaPricer.priceAll(orders);
+            long parallelNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            PricedPizza[] again = PizzaPricer.priceAll(orders);
+            long memoNanos = System.nanoTime() - start;
+            if (again[0] != priced[0]) {
+                throw new IllegalStateException("Compiling an order twice did not hit the memo");
+            }
+            double total = 0;
+            for (PricedPizza pizza : priced) {
+                total += pizza.getCost();
+            }
+            if (Math.abs(total - sequential) > 1e-6 * sequential) {
+                throw new IllegalStateException("Batch totals differ: " + total + " vs " + sequential);
+            }
+            System.out.printf(Locale.ROOT, "batch of %,d orders: recursive %d ms, compiled in parallel %d ms, "
+                            + "again from the memo %d ms (%d cores)%n",
+                    orders.size(), recursiveNanos / 1_000_000, parallelNanos / 1_000_000, memoNanos / 1_000_000,
+                    Runtime.getRuntime().availableProcessors());
+        }
+        System.out.println("(" + sink + ")");
+    }
+
+    private static double mean(double[] scores) {
+        double sum = 0;
+        for (double score : scores) {
+            sum += score;
+        }
+        return sum / scores.length;
+    }
+
+    // Half-width of the 99.9% confidence interval (Student's t for 4 degrees of freedom)
+    private static double error(double[] scores, double mean) {
+        double squares = 0;
+        for (double score : scores) {
+            squares += (score - mean) * (score - mean);
+        }
+        return 8.610 * Math.sqrt(squares / (scores.length - 1)) / Math.sqrt(scores.length);
+    }
+
+    private static String toJson(String mode, int depth, double[] scores, double mean, double error) {
+        StringBuilder raw = new StringBuilder();
+        for (double score : scores) {
+            raw.append(raw.length() == 0 ? "" : ", ").append(String.format(Locale.ROOT, "%.3f", score));
+        }
+        return String.format(Locale.ROOT,
+                "  {\"benchmark\": \"PizzaBenchmark.%s\", \"depth\": %d, \"warmupIterations\": %d, "
+                        + "\"measurementIterations\": %d, \"unit\": \"ns/op\", \"mean\": %.3f, \"error\": %.3f, "
+                        + "\"samples\": [%s]}",
+                mode, depth, WARMUP_ITERATIONS, MEASUREMENT_ITERATIONS, mean, error, raw);
+    }
+}
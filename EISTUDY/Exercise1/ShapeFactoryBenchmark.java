@@ -0,0 +1,161 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// ShapeFactoryBenchmark.java
+// The old ShapeFactory (equalsIgnoreCase chain, a new shape per call) against the registry,
+// and one println per shape against drawAll. A plain main, not JMH: one JVM, no forks,
+// results kept alive through a sink, so compare numbers only between runs on the same
+// machine. Warmup and measurement iterations, mean +- 99.9% confidence half-width in ns/op,
+// written to a small JSON file.
+// Output goes to a null stream, so drawing measures formatting and buffering, not the
+// terminal. Also reports bytes allocated per lookup. Compile together with factory.java and
+// run: java ShapeFactoryBenchmark [results.json] [scene-size]
+public class ShapeFactoryBenchmark {
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASUREMENT_ITERATIONS = 5;
+    private static final long ITERATION_NANOS = 200_000_000L;
+    private static final String[] TYPES = {"CIRCLE", "rectangle", "Circle", "RECTANGLE"};
+
+    private static long sink;  // keeps results alive so the JIT cannot drop the calls
+
+    public static void main(String[] args) throws IOException {
+        String output = args.length > 0 ? args[0] : "shape-factory-benchmark.json";
+        int sceneSize = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        ShapeFactory registry = new ShapeFactory();
+        List<Shape> scene = new ArrayList<>(sceneSize);
+        for (int i = 0; i < sceneSize; i++) {
+            scene.add(registry.getShape(TYPES[i % TYPES.length]));
+        }
+        PrintStream nullPrint = new PrintStream(OutputStream.nullOutputStream(), true, StandardCharsets.UTF_8);
+        Writer nullWriter = new OutputStreamWriter(OutputStream.nullOutputStream(), StandardCharsets.UTF_8);
+
+        List<String> results = new ArrayList<>();
+        results.add(run("getShape", "chain", TYPES.length, () -> sink += lookup(ShapeFactoryBenchmark::chainedShape)));
+        results.add(run("getShape", "registry", TYPES.length, () -> sink += lookup(registry::getShape)));
+        results.add(run("draw", "println", sceneSize, () -> {
+            PrintStream previous = System.out;
+            System.setOut(nullPrint);
+            try {
+                for (Shape shape : scene) {
+                    shape.draw();
+                }
+            } finally {
+                System.setOut(previous);
+            }
+        }));
+        results.add(run("draw", "drawAll", sceneSize, () -> {
+            Writer out = new BufferedWriter(nullWriter, 1 << 16);
+            ShapeFactory.drawAll(scene, out);
+            out.flush();
+        }));
+        System.out.printf(Locale.ROOT, "allocated per getShape: chain %d B, registry %d B%n",
+                allocatedPerLookup(ShapeFactoryBenchmark::chainedShape), allocatedPerLookup(registry::getShape));
+
+        try (Writer writer = Files.newBufferedWriter(Paths.get(output), StandardCharsets.UTF_8)) {
+            writer.write("[\n" + String.join(",\n", results) + "\n]\n");
+        }
+        System.out.println("Results written to " + output);
+    }
+
+    private interface Lookup {
+        Shape get(String type);
+    }
+
+    private interface Body {
+        void run() throws IOException;
+    }
+
+    // The factory as it was before the registry
+    private static Shape chainedShape(String shapeType) {
+        if (shapeType == null) {
+            return null;
+        }
+        if (shapeType.equalsIgnoreCase("CIRCLE")) {
+            return new Circle();
+        } else if (shapeType.equalsIgnoreCase("RECTANGLE")) {
+            return new Rectangle();
+        }
+        return null;
+    }
+
+    private static int lookup(Lookup lookup) {
+        int hash = 0;
+        for (String type : TYPES) {
+            hash += System.identityHashCode(lookup.get(type)) & 1;
+        }
+        return hash;
+    }
+
+    private static long allocatedPerLookup(Lookup lookup) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long id = Thread.currentThread().getId();
+        int rounds = 100_000;
+        long before = threads.getThreadAllocatedBytes(id);
+        for (int i = 0; i < rounds; i++) {
+            sink += lookup(lookup);
+        }
+        return (threads.getThreadAllocatedBytes(id) - before) / (rounds * (long) TYPES.length);
+    }
+
+    // perCall is the number of shapes one run of body handles; scores are ns per shape
+    private static String run(String benchmark, String mode, int perCall, Body body) throws IOException {
+        double[] scores = new double[MEASUREMENT_ITERATIONS];
+        for (int iteration = 0; iteration < WARMUP_ITERATIONS + MEASUREMENT_ITERATIONS; iteration++) {
+            long calls = 0;
+            long start = System.nanoTime();
+            long elapsed;
+            do {
+                body.run();
+                calls++;
+                elapsed = System.nanoTime() - start;
+            } while (elapsed < ITERATION_NANOS);
+            if (iteration >= WARMUP_ITERATIONS) {
+                scores[iteration - WARMUP_ITERATIONS] = (double) elapsed / (calls * perCall);
+            }
+        }
+        double mean = mean(scores);
+        double error = error(scores, mean);
+        System.out.printf(Locale.ROOT, "%-8s %-8s: %,10.1f +- %,8.1f ns/op%n", benchmark, mode, mean, error);
+        return toJson(benchmark, mode, scores, mean, error);
+    }
+
+    private static double mean(double[] scores) {
+        double sum = 0;
+        for (double score : scores) {
+            sum += score;
+        }
+        return sum / scores.length;
+    }
+
+    // Half-width of the 99.9% confidence interval (Student's t for 4 degrees of freedom)
+    private static double error(double[] scores, double mean) {
+        double squares = 0;
+        for (double score : scores) {
+            squares += (score - mean) * (score - mean);
+        }
+        return 8.610 * Math.sqrt(squares / (scores.length - 1)) / Math.sqrt(scores.length);
+    }
+
+    private static String toJson(String benchmark, String mode, double[] scores, double mean, double error) {
+        StringBuilder raw = new StringBuilder();
+        for (double score : scores) {
+            raw.append(raw.length() == 0 ? "" : ", ").append(String.format(Locale.ROOT, "%.3f", score));
+        }
+        return String.format(Locale.ROOT,
+                "  {\"benchmark\": \"ShapeFactoryBenchmark.%s\", \"implementation\": \"%s\", "
+                        + "\"warmupIterations\": %d, \"measurementIterations\": %d, \"unit\": \"ns/op\", "
+                        + "\"mean\": %.3f, \"error\": %.3f, \"samples\": [%s]}",
+                benchmark, mode, WARMUP_ITERATIONS, MEASUREMENT_ITERATIONS, mean, error, raw);
+    }
+}
@@ -0,0 +1,98 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// StockFanOutBenchmark.java
+// Compares synchronous and async fan-out in Stock when one of many investors is slow.
+// Compile together with the Observer/Stock classes from behaviour,java and run:
+// java StockFanOutBenchmark [subscribers] [ticks] [threads]
+// Checks that every investor ends on the final price and prints the lag metrics.
+public class StockFanOutBenchmark {
+    // Remembers the last price it saw; the slow one also sleeps on every update
+    static class RecordingInvestor implements Observer {
+        private final long pauseMillis;
+        volatile float lastPrice;
+
+        RecordingInvestor(long pauseMillis) {
+            this.pauseMillis = pauseMillis;
+        }
+
+        @Override
+        public void update(float stockPrice) {
+            lastPrice = stockPrice;
+            if (pauseMillis > 0) {
+                try {
+                    Thread.sleep(pauseMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int subscribers = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        int ticks = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+
+        Stock stock = new Stock();
+        RecordingInvestor[] investors = new RecordingInvestor[subscribers];
+        for (int i = 0; i < subscribers; i++) {
+            investors[i] = new RecordingInvestor(i == 0 ? 2 : 0);
+            stock.addObserver(investors[i]);
+        }
+
+        int syncTicks = 200;
+        long start = System.nanoTime();
+        for (int tick = 0; tick < syncTicks; tick++) {
+            stock.setPrice(100 + tick * 0.01f);
+        }
+        System.out.printf("sync:  %,12.0f ticks/s (held up by the slow investor)%n",
+                syncTicks * 1e9 / (System.nanoTime() - start));
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        stock.enableAsyncFanOut(pool);
+        start = System.nanoTime();
+        float last = 0;
+        for (int tick = 0; tick < ticks; tick++) {
+            last = 200 + tick * 0.01f;
+            stock.setPrice(last);
+        }
+        System.out.printf("async: %,12.0f ticks/s published to %,d subscribers on %d threads%n",
+                ticks * 1e9 / (System.nanoTime() - start), subscribers, threads);
+        waitForLatest(stock);
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.SECONDS);
+
+        for (RecordingInvestor investor : investors) {
+            if (investor.lastPrice != last) {
+                throw new IllegalStateException("An investor ended on " + investor.lastPrice + " instead of " + last);
+            }
+        }
+        List<Stock.Subscription> subscriptions = stock.getSubscriptions();
+        Stock.Subscription slow = subscriptions.get(0);
+        long[] latencies = new long[subscriptions.size() - 1];
+        long delivered = 0;
+        for (int i = 1; i < subscriptions.size(); i++) {
+            latencies[i - 1] = subscriptions.get(i).getMaxLatencyNanos();
+            delivered += subscriptions.get(i).getDelivered();
+        }
+        Arrays.sort(latencies);
+        System.out.printf("slow investor: %,d delivered, %,d conflated, max lag %,d ticks%n",
+                slow.getDelivered(), slow.getConflated(), slow.getMaxLag());
+        System.out.printf("others: %,.1f deliveries each on average, max latency median %,d us, worst %,d us%n",
+                (double) delivered / latencies.length, latencies[latencies.length / 2] / 1000,
+                latencies[latencies.length - 1] / 1000);
+        System.out.println("Every investor ended on the final price.");
+    }
+
+    private static void waitForLatest(Stock stock) throws InterruptedException {
+        for (Stock.Subscription subscription : stock.getSubscriptions()) {
+            while (subscription.getLag() > 0) {
+                Thread.sleep(1);
+            }
+        }
+    }
+}
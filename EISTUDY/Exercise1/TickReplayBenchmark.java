@@ -0,0 +1,111 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+// TickReplayBenchmark.java
+// Records a synthetic trading day with TickRecorder and measures how fast TickReplayer
+// feeds it back: raw, through a MarketDataEngine with an aggregator chain per symbol, and
+// through a Stock's observers. Also checks that a paced replay keeps the recorded timing.
+// Compile together with the classes from behaviour,java and run:
+// java TickReplayBenchmark [ticks] [symbols]
+public class TickReplayBenchmark {
+    private static final long DAY_NANOS = 23_400_000_000_000L;  // a 6.5 hour session
+
+    // Sums every field, so replayed data can be compared with what was recorded
+    static class Checksum implements TickListener {
+        long value;
+        long count;
+
+        @Override
+        public void onTick(Tick tick) {
+            value = value * 31 + (tick.symbolId ^ tick.timestamp ^ tick.size ^ Double.doubleToRawLongBits(tick.price));
+            count++;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int ticks = args.length > 0 ? Integer.parseInt(args[0]) : 20_000_000;
+        int symbols = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        Path file = Files.createTempFile("ticks", ".bin");
+        try {
+            Checksum recorded = new Checksum();
+            long start = System.nanoTime();
+            try (TickRecorder recorder = new TickRecorder(file)) {
+                Tick tick = new Tick();
+                long seed = 42;
+                for (int i = 0; i < ticks; i++) {
+                    seed = seed * 6364136223846793005L + 1442695040888963407L;
+                    tick.symbolId = (int) ((seed >>> 33) % symbols);
+                    tick.timestamp = DAY_NANOS / ticks * i;
+                    tick.price = 100 + ((seed >>> 20) & 4095) * 0.01;
+                    tick.size = 1 + ((seed >>> 12) & 255);
+                    recorder.onTick(tick);
+                    recorded.onTick(tick);
+                }
+            }
+            report("record", ticks, System.nanoTime() - start);
+            System.out.printf(Locale.ROOT, "file: %,d bytes for %,d ticks%n", Files.size(file), ticks);
+
+            TickReplayer replayer = new TickReplayer(file);
+            for (int round = 0; round < 3; round++) {
+                Checksum replayed = new Checksum();
+                start = System.nanoTime();
+                replayer.replay(replayed, TickReplayer.AS_FAST_AS_POSSIBLE);
+                report("replay raw", ticks, System.nanoTime() - start);
+                if (replayed.value != recorded.value || replayed.count != ticks) {
+                    throw new IllegalStateException("Replayed ticks differ from the recorded ones");
+                }
+            }
+
+            MarketDataEngine engine = new MarketDataEngine();
+            SimpleMovingAverage[] averages = new SimpleMovingAverage[symbols];
+            for (int s = 0; s < symbols; s++) {
+                engine.addSymbol(s, "SYM" + s);
+                averages[s] = new SimpleMovingAverage(100);
+                engine.subscribe(s, new AggregatorChain().add(averages[s]).add(new RollingMinMax(100))
+                        .add(new RollingVwap(100)));
+            }
+            start = System.nanoTime();
+            replayer.replay(engine, TickReplayer.AS_FAST_AS_POSSIBLE);
+            report("replay engine", ticks, System.nanoTime() - start);
+
+            Stock stock = new Stock();
+            ExponentialMovingAverage ema = new ExponentialMovingAverage(20);
+            stock.addObserver(ema);
+            start = System.nanoTime();
+            replayer.replay(stock, 7, TickReplayer.AS_FAST_AS_POSSIBLE);
+            report("replay stock", ticks, System.nanoTime() - start);
+            System.out.printf(Locale.ROOT, "(sma[0] %.4f, stock ema %.4f)%n", averages[0].getAverage(), ema.getAverage());
+
+            checkPacing(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // 2,000 ticks 1 ms apart at 4x speed should take about half a second, and never less
+    private static void checkPacing(Path base) throws IOException {
+        Path file = base.resolveSibling(base.getFileName() + ".paced");
+        try {
+            try (TickRecorder recorder = new TickRecorder(file)) {
+                for (int i = 0; i < 2_000; i++) {
+                    recorder.record(1, i * 1_000_000L, 100, 1);
+                }
+            }
+            long start = System.nanoTime();
+            new TickReplayer(file).replay(tick -> { }, 4);
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            if (millis < 499 || millis > 1_000) {
+                throw new IllegalStateException("Paced replay took " + millis + " ms instead of about 500");
+            }
+            System.out.println("Paced replay at 4x took " + millis + " ms for 2 s of recorded time.");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void report(String name, long ticks, long nanos) {
+        System.out.printf(Locale.ROOT, "%-14s %,14.0f ticks/s (%,d ms)%n", name + ":", ticks * 1e9 / nanos, nanos / 1_000_000);
+    }
+}
@@ -1,4 +1,8 @@
 public class decorator {
+    import java.util.ArrayList;
+    import java.util.List;
+    import java.util.stream.IntStream;
+
     // Pizza.java
 interface Pizza {
     String getDescription();
@@ -20,7 +24,7 @@ class BasicPizza implements Pizza {
 
 // PizzaDecorator.java
 abstract class PizzaDecorator implements Pizza {
-    protected Pizza pizza;
+    protected final Pizza pizza;
 
     public PizzaDecorator(Pizza pizza) {
         this.pizza = pizza;
@@ -37,20 +41,128 @@ abstract class PizzaDecorator implements Pizza {
     }
 }
 
+// Topping.java
+// One named topping at a fixed price
+interface Topping {
+    String getToppingName();
+    double getToppingCost();
+}
+
+// ToppingDecorator.java
+// Base for decorators whose whole effect is to add one Topping. getDescription and getCost
+// are final and defined by the topping alone, so PricedPizza can flatten these decorators
+// without calling through the chain and still agree with them exactly. A decorator that
+// prices itself some other way (a discount, say) extends PizzaDecorator instead.
+abstract class ToppingDecorator extends PizzaDecorator implements Topping {
+    volatile PricedPizza priced;  // set by PricedPizza.of; the chain below never changes
+
+    protected ToppingDecorator(Pizza pizza) {
+        super(pizza);
+    }
+
+    @Override
+    public final String getDescription() {
+        return pizza.getDescription() + ", " + getToppingName();
+    }
+
+    @Override
+    public final double getCost() {
+        return pizza.getCost() + getToppingCost();
+    }
+}
+
 // CheeseDecorator.java
-class CheeseDecorator extends PizzaDecorator {
+class CheeseDecorator extends ToppingDecorator {
     public CheeseDecorator(Pizza pizza) {
         super(pizza);
     }
 
+    @Override
+    public String getToppingName() {
+        return "Cheese";
+    }
+
+    @Override
+    public double getToppingCost() {
+        return 20.0;
+    }
+}
+
+// PricedPizza.java
+// A decorator chain compiled into one immutable item: the chain is walked once, the cost is
+// summed in the same order the recursive getCost() would, and the description is built once
+// with a StringBuilder. The walk stops at the first pizza that is not a ToppingDecorator and
+// evaluates that part once, so custom decorators still price correctly. The result is
+// memoized on the outermost decorator: compiling the same order again returns it at once,
+// and compiling a chain built on an already compiled one only walks the new toppings. So
+// the price of a chain is fixed when it is first compiled.
+final class PricedPizza implements Pizza {
+    private final String description;
+    private final double cost;
+
+    private PricedPizza(String description, double cost) {
+        this.description = description;
+        this.cost = cost;
+    }
+
+    public static PricedPizza of(Pizza pizza) {
+        if (pizza instanceof PricedPizza) {
+            return (PricedPizza) pizza;
+        }
+        if (pizza instanceof ToppingDecorator && ((ToppingDecorator) pizza).priced != null) {
+            return ((ToppingDecorator) pizza).priced;
+        }
+        List<Topping> toppings = new ArrayList<>();  // outermost first
+        Pizza base = pizza;
+        while (base instanceof ToppingDecorator) {
+            ToppingDecorator decorator = (ToppingDecorator) base;
+            if (decorator.priced != null) {
+                base = decorator.priced;
+                break;
+            }
+            toppings.add(decorator);
+            base = decorator.pizza;
+        }
+        String baseDescription = base.getDescription();
+        double cost = base.getCost();
+        int length = baseDescription.length();
+        for (Topping topping : toppings) {
+            length += 2 + topping.getToppingName().length();
+        }
+        StringBuilder description = new StringBuilder(length).append(baseDescription);
+        for (int i = toppings.size() - 1; i >= 0; i--) {
+            Topping topping = toppings.get(i);
+            description.append(", ").append(topping.getToppingName());
+            cost += topping.getToppingCost();
+        }
+        PricedPizza priced = new PricedPizza(description.toString(), cost);
+        if (pizza instanceof ToppingDecorator) {
+            ((ToppingDecorator) pizza).priced = priced;
+        }
+        return priced;
+    }
+
     @Override
     public String getDescription() {
-        return pizza.getDescription() + ", Cheese";
+        return description;
     }
 
     @Override
     public double getCost() {
-        return pizza.getCost() + 20.0;
+        return cost;
+    }
+}
+
+// PizzaPricer.java (Compiles a batch of orders in one parallel pass; repeat orders hit the memo)
+class PizzaPricer {
+    public static PricedPizza[] priceAll(List<? extends Pizza> orders) {
+        PricedPizza[] priced = new PricedPizza[orders.size()];
+        IntStream.range(0, priced.length).parallel().forEach(i -> priced[i] = PricedPizza.of(orders.get(i)));
+        return priced;
+    }
+
+    public static double total(List<? extends Pizza> orders) {
+        return IntStream.range(0, orders.size()).parallel().mapToDouble(i -> PricedPizza.of(orders.get(i)).getCost()).sum();
     }
 }
 
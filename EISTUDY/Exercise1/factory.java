@@ -1,37 +1,140 @@
 public class factory {
+    import java.io.*;
+    import java.nio.charset.Charset;
+    import java.util.ArrayList;
+    import java.util.List;
+    import java.util.Locale;
+    import java.util.concurrent.ConcurrentHashMap;
+    import java.util.function.Supplier;
+
     // Shape.java
+// render() is the one method a shape must implement, so a type registered at runtime, a
+// lambda included, always prints the same line through draw() and through drawAll.
 interface Shape {
-    void draw();
+    // Batch rendering path used by ShapeFactory.drawAll: appends the shape's line
+    void render(Appendable out) throws IOException;
+
+    // Prints what render() appends; implementations may print it directly
+    default void draw() {
+        StringBuilder line = new StringBuilder(32);
+        try {
+            render(line);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);  // only if render() itself throws; a StringBuilder never does
+        }
+        System.out.print(line);
+    }
 }
 
-// Circle.java
+// Circle.java (Stateless, so ShapeFactory hands out one shared instance)
 class Circle implements Shape {
+    private static final String LINE = "Drawing a Circle";
+
     @Override
     public void draw() {
-        System.out.println("Drawing a Circle");
+        System.out.println(LINE);
+    }
+
+    @Override
+    public void render(Appendable out) throws IOException {
+        out.append(LINE).append('\n');
     }
 }
 
-// Rectangle.java
+// Rectangle.java (Stateless, so ShapeFactory hands out one shared instance)
 class Rectangle implements Shape {
+    private static final String LINE = "Drawing a Rectangle";
+
     @Override
     public void draw() {
-        System.out.println("Drawing a Rectangle");
+        System.out.println(LINE);
+    }
+
+    @Override
+    public void render(Appendable out) throws IOException {
+        out.append(LINE).append('\n');
     }
 }
 
 // ShapeFactory.java
+// A registry of shape types, looked up case-insensitively. A stateless type is registered
+// with one shared (flyweight) instance that every getShape call returns; any other type with
+// a supplier that makes a new shape per call. Types can be added at runtime from any thread.
+// Lookups go through a cache of the exact spellings seen so far, so a repeated type name is
+// found with one hash lookup and no case conversion; each entry carries the registry version
+// it was read at, so one cached while a type was being registered is never served after.
 class ShapeFactory {
+    private static final int MAX_SPELLINGS = 1024;  // bounds the cache against arbitrary input
+
+    private final ConcurrentHashMap<String, Supplier<? extends Shape>> types = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Spelling> spellings = new ConcurrentHashMap<>();
+    private volatile int version;  // bumped by every register; older cached spellings are ignored
+
+    // A cached spelling, valid only while the registry is still at the version it was read at
+    private static final class Spelling {
+        final Supplier<? extends Shape> supplier;
+        final int version;
+
+        Spelling(Supplier<? extends Shape> supplier, int version) {
+            this.supplier = supplier;
+            this.version = version;
+        }
+    }
+
+    public ShapeFactory() {
+        registerShared("CIRCLE", new Circle());
+        registerShared("RECTANGLE", new Rectangle());
+    }
+
+    public void registerShared(String shapeType, Shape instance) {
+        register(shapeType, () -> instance);
+    }
+
+    public synchronized void register(String shapeType, Supplier<? extends Shape> supplier) {
+        types.put(shapeType.toUpperCase(Locale.ROOT), supplier);
+        version++;  // after the put, so a lookup that saw the old type caches it under the old version
+        spellings.clear();  // only to free the stale entries
+    }
+
+    // Null for a null or unknown type, as before
     public Shape getShape(String shapeType) {
         if (shapeType == null) {
             return null;
         }
-        if (shapeType.equalsIgnoreCase("CIRCLE")) {
-            return new Circle();
-        } else if (shapeType.equalsIgnoreCase("RECTANGLE")) {
-            return new Rectangle();
+        Spelling cached = spellings.get(shapeType);
+        if (cached != null && cached.version == version) {
+            return cached.supplier.get();
+        }
+        int current = version;  // read before types, so a concurrent register makes this entry stale
+        Supplier<? extends Shape> supplier = types.get(shapeType.toUpperCase(Locale.ROOT));
+        if (supplier == null) {
+            return null;
+        }
+        if (spellings.size() < MAX_SPELLINGS) {
+            spellings.put(shapeType, new Spelling(supplier, current));
+        }
+        return supplier.get();
+    }
+
+    // Renders every shape into out, which should be buffered; nothing is flushed. Null entries,
+    // such as getShape returns for an unknown type, are skipped.
+    public static void drawAll(Iterable<? extends Shape> shapes, Appendable out) throws IOException {
+        for (Shape shape : shapes) {
+            if (shape != null) {
+                shape.render(out);
+            }
+        }
+    }
+
+    // Renders every shape to System.out, as redirected, through one 64 KB buffer
+    public static void drawAll(Iterable<? extends Shape> shapes) {
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, Charset.defaultCharset()), 1 << 16);
+        try {
+            drawAll(shapes, out);
+            out.flush();  // not closed: that would close standard output
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        return null;
     }
 }
 
@@ -45,6 +148,13 @@ public class Main {
 
         Shape shape2 = shapeFactory.getShape("RECTANGLE");
         shape2.draw();
+
+        // A scene is rendered in one go rather than one println per shape
+        List<Shape> scene = new ArrayList<>();
+        for (String type : new String[] {"circle", "Rectangle", "CIRCLE"}) {
+            scene.add(shapeFactory.getShape(type));
+        }
+        ShapeFactory.drawAll(scene);
     }
 }
 
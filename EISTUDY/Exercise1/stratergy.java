@@ -1,4 +1,16 @@
 public class stratergy {
+    import java.io.Closeable;
+    import java.io.IOException;
+    import java.io.InterruptedIOException;
+    import java.util.*;
+    import java.util.concurrent.*;
+    import java.util.concurrent.atomic.AtomicBoolean;
+    import java.util.concurrent.atomic.AtomicInteger;
+    import java.util.concurrent.atomic.AtomicLong;
+    import java.util.concurrent.atomic.AtomicReference;
+    import java.util.concurrent.locks.LockSupport;
+    import java.util.concurrent.locks.ReentrantReadWriteLock;
+
     // PaymentStrategy.java
 interface PaymentStrategy {
     void pay(int amount);
@@ -43,6 +55,452 @@ class ShoppingCart {
     public void checkout(int amount) {
         paymentStrategy.pay(amount);
     }
+
+    // Returns at once; the order id doubles as the idempotency key, so checking out the same
+    // order twice charges it once
+    public CompletableFuture<PaymentResult> checkoutAsync(PaymentPipeline pipeline, String orderId, int amount) {
+        return pipeline.payAsync(orderId, paymentStrategy, amount);
+    }
+}
+
+// PaymentResult.java (Outcome of one payment, as seen by the caller of payAsync)
+class PaymentResult {
+    public enum Status {
+        SUCCEEDED, DECLINED, FAILED
+    }
+
+    private String idempotencyKey;
+    private Status status;
+    private String reference;  // the provider's id for the charge; null unless SUCCEEDED
+    private int attempts;
+    private String message;
+
+    public PaymentResult(String idempotencyKey, Status status, String reference, int attempts, String message) {
+        this.idempotencyKey = idempotencyKey;
+        this.status = status;
+        this.reference = reference;
+        this.attempts = attempts;
+        this.message = message;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return idempotencyKey + ": " + status + (reference != null ? " " + reference : "")
+                + (message != null ? " (" + message + ")" : "") + " after " + attempts + " attempt(s)";
+    }
+}
+
+// PaymentRequest.java (One payment waiting in the pipeline)
+class PaymentRequest {
+    private String idempotencyKey;
+    private PaymentStrategy strategy;
+    private int amount;
+    final CompletableFuture<PaymentResult> result = new CompletableFuture<>();
+
+    public PaymentRequest(String idempotencyKey, PaymentStrategy strategy, int amount) {
+        this.idempotencyKey = idempotencyKey;
+        this.strategy = strategy;
+        this.amount = amount;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public PaymentStrategy getStrategy() {
+        return strategy;
+    }
+
+    public int getAmount() {
+        return amount;
+    }
+}
+
+// PaymentProvider.java
+// Bulk submission to one payment provider. Returns one entry per payment: the provider's
+// reference, or null if it declined that payment. Throwing IOException means the whole batch
+// may not have gone through and is safe to resend, because providers charge a given
+// idempotency key at most once.
+interface PaymentProvider {
+    String[] submitBatch(List<PaymentRequest> payments) throws IOException;
+
+    // Bridges the existing strategies: pays each request through PaymentStrategy.pay
+    static PaymentProvider direct() {
+        return payments -> {
+            String[] references = new String[payments.size()];
+            for (int i = 0; i < references.length; i++) {
+                PaymentRequest payment = payments.get(i);
+                payment.getStrategy().pay(payment.getAmount());
+                references[i] = payment.getIdempotencyKey();
+            }
+            return references;
+        };
+    }
+}
+
+// StubPaymentProvider.java
+// Local stand-in for a remote provider: a fixed latency per batch plus a little per payment,
+// and configurable rates of failed batches, hung batches and declined payments. It remembers
+// every key it charged, so resent batches are not charged twice.
+class StubPaymentProvider implements PaymentProvider {
+    private final long batchLatencyMicros;
+    private final long paymentLatencyMicros;
+    private final double failureRate;
+    private final double hangRate;
+    private final double declineRate;
+    private final ConcurrentHashMap<String, String> charged = new ConcurrentHashMap<>();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong replayedKeys = new AtomicLong();
+
+    public StubPaymentProvider(long batchLatencyMicros, long paymentLatencyMicros, double failureRate,
+                               double hangRate, double declineRate) {
+        this.batchLatencyMicros = batchLatencyMicros;
+        this.paymentLatencyMicros = paymentLatencyMicros;
+        this.failureRate = failureRate;
+        this.hangRate = hangRate;
+        this.declineRate = declineRate;
+    }
+
+    @Override
+    public String[] submitBatch(List<PaymentRequest> payments) throws IOException {
+        batches.incrementAndGet();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            if (random.nextDouble() < hangRate) {
+                Thread.sleep(60_000);  // until the pipeline's timeout interrupts it
+            }
+            LockSupport.parkNanos((batchLatencyMicros + paymentLatencyMicros * payments.size()) * 1000);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException("Batch abandoned");
+        }
+        if (random.nextDouble() < failureRate) {
+            throw new IOException("Provider unavailable");
+        }
+        String[] references = new String[payments.size()];
+        for (int i = 0; i < references.length; i++) {
+            String key = payments.get(i).getIdempotencyKey();
+            String reference = random.nextDouble() < declineRate ? "" : "ch_" + Long.toHexString(random.nextLong());
+            String previous = charged.putIfAbsent(key, reference);  // "" records a decline
+            if (previous != null) {
+                replayedKeys.incrementAndGet();  // a resent batch: answer as the first time
+                reference = previous;
+            }
+            references[i] = reference.isEmpty() ? null : reference;
+        }
+        return references;
+    }
+
+    public int getChargedKeys() {
+        return charged.size();
+    }
+
+    public long getBatches() {
+        return batches.get();
+    }
+
+    // Keys that arrived again, in resent batches, and were not charged again
+    public long getReplayedKeys() {
+        return replayedKeys.get();
+    }
+}
+
+// IdempotencyCache.java (Bounded LRU of idempotency key -> result of the payment made under it)
+// Only completed results are evicted: a payment still in flight stays pinned, so load can
+// never drop a key whose charge may still be running. While more payments are in flight
+// than the capacity, the cache holds them all and evicts the oldest completed ones.
+class IdempotencyCache {
+    private final LinkedHashMap<String, CompletableFuture<PaymentResult>> entries;
+
+    public IdempotencyCache(int capacity) {
+        entries = new LinkedHashMap<String, CompletableFuture<PaymentResult>>(capacity * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<PaymentResult>> eldest) {
+                if (size() <= capacity || eldest.getValue().isDone()) {
+                    return size() > capacity;
+                }
+                // The eldest is in flight: evict the least recently used completed ones instead
+                Iterator<CompletableFuture<PaymentResult>> values = values().iterator();
+                while (size() > capacity && values.hasNext()) {
+                    if (values.next().isDone()) {
+                        values.remove();
+                    }
+                }
+                return false;
+            }
+        };
+    }
+
+    // The result already recorded under the key, or null after recording the given one
+    public synchronized CompletableFuture<PaymentResult> putIfAbsent(String key, CompletableFuture<PaymentResult> result) {
+        CompletableFuture<PaymentResult> existing = entries.get(key);
+        if (existing == null) {
+            entries.put(key, result);
+        }
+        return existing;
+    }
+
+    // Only removes the key if it still maps to this result
+    public synchronized void remove(String key, CompletableFuture<PaymentResult> result) {
+        entries.remove(key, result);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
+
+// PaymentPipeline.java
+// Non-blocking payments. payAsync() dedups on the idempotency key and queues the payment on
+// its provider's lane; each lane's batcher collects up to maxBatch payments (waiting at most
+// linger for more) and submits them as one bulk call on the I/O pool. A batch that fails or
+// exceeds the timeout is resent with exponential backoff and jitter, up to maxAttempts; after
+// that its payments complete as FAILED and their keys are released, so the caller may retry.
+// Successful and declined results stay in the bounded idempotency cache.
+class PaymentPipeline implements Closeable {
+    private static final int MAX_IN_FLIGHT = 64;  // batches per provider submitted but not yet finished
+    private static final PaymentRequest STOP = new PaymentRequest("", null, 0);
+
+    private final Map<Class<? extends PaymentStrategy>, Lane> lanes = new ConcurrentHashMap<>();
+    private final IdempotencyCache cache;
+    private final int maxBatch;
+    private final long lingerMicros;
+    private final long timeoutMillis;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final ExecutorService io;
+    private final ScheduledExecutorService timers;
+    // Payments enqueue under the read lock and close() queues STOP under the write lock, so
+    // no payment can land behind STOP, where no batcher would ever take it
+    private final ReentrantReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private boolean closed;  // guarded by closeLock
+
+    public PaymentPipeline(int maxBatch, long lingerMicros, long timeoutMillis, int maxAttempts, long backoffMillis,
+                           int cacheCapacity, int ioThreads) {
+        this.maxBatch = maxBatch;
+        this.lingerMicros = lingerMicros;
+        this.timeoutMillis = timeoutMillis;
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+        this.cache = new IdempotencyCache(cacheCapacity);
+        this.io = Executors.newFixedThreadPool(ioThreads, daemon("payment-io"));
+        this.timers = Executors.newSingleThreadScheduledExecutor(daemon("payment-timer"));
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger ids = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + ids.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // Payments made with this kind of strategy go to the provider, in batches
+    public void registerProvider(Class<? extends PaymentStrategy> strategy, PaymentProvider provider) {
+        lanes.computeIfAbsent(strategy, type -> new Lane(type.getSimpleName(), provider));
+    }
+
+    public CompletableFuture<PaymentResult> payAsync(String idempotencyKey, PaymentStrategy strategy, int amount) {
+        Lane lane = lanes.get(strategy.getClass());
+        if (lane == null) {
+            throw new IllegalArgumentException("No provider registered for " + strategy.getClass().getSimpleName());
+        }
+        PaymentRequest request = new PaymentRequest(idempotencyKey, strategy, amount);
+        closeLock.readLock().lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Payment pipeline is closed");
+            }
+            CompletableFuture<PaymentResult> existing = cache.putIfAbsent(idempotencyKey, request.result);
+            if (existing != null) {
+                return existing;  // same key: the same payment, never a second charge
+            }
+            lane.queue.add(request);
+        } finally {
+            closeLock.readLock().unlock();
+        }
+        return request.result;
+    }
+
+    // Stops taking payments and waits for the queued ones to finish
+    @Override
+    public void close() {
+        closeLock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (Lane lane : lanes.values()) {
+                lane.queue.add(STOP);
+            }
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        for (Lane lane : lanes.values()) {
+            try {
+                lane.batcher.join();
+                lane.inFlight.acquire(MAX_IN_FLIGHT);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        io.shutdownNow();
+        timers.shutdownNow();
+    }
+
+    // One provider's queue and the thread that cuts it into batches
+    private class Lane {
+        final String name;
+        final PaymentProvider provider;
+        final LinkedBlockingQueue<PaymentRequest> queue = new LinkedBlockingQueue<>();
+        final Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+        final Thread batcher;
+
+        Lane(String name, PaymentProvider provider) {
+            this.name = name;
+            this.provider = provider;
+            batcher = daemon("payment-batcher-" + name).newThread(this::batchLoop);
+            batcher.start();
+        }
+
+        private void batchLoop() {
+            try {
+                while (true) {
+                    PaymentRequest first = queue.take();
+                    if (first == STOP) {
+                        return;
+                    }
+                    List<PaymentRequest> batch = new ArrayList<>(maxBatch);
+                    batch.add(first);
+                    long deadline = System.nanoTime() + lingerMicros * 1000;
+                    boolean stop = false;
+                    while (batch.size() < maxBatch) {
+                        PaymentRequest next = queue.poll();
+                        if (next == null) {
+                            long wait = deadline - System.nanoTime();
+                            next = wait > 0 ? queue.poll(wait, TimeUnit.NANOSECONDS) : null;
+                            if (next == null) {
+                                break;
+                            }
+                        }
+                        if (next == STOP) {
+                            stop = true;
+                            break;
+                        }
+                        batch.add(next);
+                    }
+                    inFlight.acquire();
+                    send(batch, 1);
+                    if (stop) {
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // One submission attempt, settled by whichever comes first: the reply or the timeout. The
+        // timer starts when an io thread picks the attempt up, so time queued behind other
+        // batches does not count against the provider
+        private void send(List<PaymentRequest> batch, int attempt) {
+            AtomicBoolean settled = new AtomicBoolean();
+            AtomicReference<ScheduledFuture<?>> timeout = new AtomicReference<>();
+            AtomicReference<FutureTask<Void>> self = new AtomicReference<>();
+            FutureTask<Void> submission = new FutureTask<>(() -> {
+                try {
+                    timeout.set(timers.schedule(() -> {
+                        if (settled.compareAndSet(false, true)) {
+                            self.get().cancel(true);  // interrupts a hung provider call
+                            retry(batch, attempt, "timed out after " + timeoutMillis + " ms");
+                        }
+                    }, timeoutMillis, TimeUnit.MILLISECONDS));
+                    String[] references = provider.submitBatch(batch);
+                    if (references == null || references.length != batch.size()) {
+                        throw new IOException("provider returned " + (references == null ? "no" : references.length)
+                                + " references for " + batch.size() + " payments");
+                    }
+                    if (settled.compareAndSet(false, true)) {
+                        cancel(timeout.get());
+                        complete(batch, references, attempt);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    if (settled.compareAndSet(false, true)) {
+                        cancel(timeout.get());
+                        retry(batch, attempt, e.getMessage());
+                    }
+                }
+            }, null);
+            self.set(submission);
+            try {
+                io.execute(submission);
+            } catch (RejectedExecutionException e) {
+                if (settled.compareAndSet(false, true)) {
+                    retry(batch, maxAttempts, "pipeline closed");
+                }
+            }
+        }
+
+        private void cancel(ScheduledFuture<?> timeout) {
+            if (timeout != null) {
+                timeout.cancel(false);
+            }
+        }
+
+        private void retry(List<PaymentRequest> batch, int attempt, String reason) {
+            if (attempt >= maxAttempts) {
+                for (PaymentRequest payment : batch) {
+                    cache.remove(payment.getIdempotencyKey(), payment.result);
+                    payment.result.complete(new PaymentResult(payment.getIdempotencyKey(), PaymentResult.Status.FAILED,
+                            null, attempt, name + ": " + reason));
+                }
+                inFlight.release();
+                return;
+            }
+            long backoff = backoffMillis << (attempt - 1);
+            long jitter = ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+            try {
+                timers.schedule(() -> send(batch, attempt + 1), backoff + jitter, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                retry(batch, maxAttempts, "pipeline closed");
+            }
+        }
+
+        private void complete(List<PaymentRequest> batch, String[] references, int attempt) {
+            for (int i = 0; i < batch.size(); i++) {
+                PaymentRequest payment = batch.get(i);
+                String reference = references[i];
+                payment.result.complete(new PaymentResult(payment.getIdempotencyKey(),
+                        reference != null ? PaymentResult.Status.SUCCEEDED : PaymentResult.Status.DECLINED,
+                        reference, attempt, reference != null ? null : "declined by " + name));
+            }
+            inFlight.release();
+        }
+    }
 }
 
 // Main.java
@@ -54,6 +512,14 @@ public class Main {
 
         cart.setPaymentStrategy(new PayPalPayment("email@example.com"));
         cart.checkout(300);
+
+        try (PaymentPipeline pipeline = new PaymentPipeline(100, 1_000, 2_000, 3, 50, 10_000, 4)) {
+            pipeline.registerProvider(CreditCardPayment.class, PaymentProvider.direct());
+            pipeline.registerProvider(PayPalPayment.class, PaymentProvider.direct());
+            CompletableFuture<PaymentResult> first = cart.checkoutAsync(pipeline, "order-42", 200);
+            CompletableFuture<PaymentResult> again = cart.checkoutAsync(pipeline, "order-42", 200);
+            System.out.println(first.join() + (first == again ? ", retried checkout reused it" : ""));
+        }
     }
 }
 
@@ -1,126 +1,2321 @@
 public class Assignment {
+    import java.io.*;
+    import java.nio.ByteBuffer;
+    import java.nio.MappedByteBuffer;
+    import java.nio.channels.FileChannel;
+    import java.nio.charset.StandardCharsets;
+    import java.nio.file.*;
+    import java.time.*;
     import java.util.*;
+    import java.util.concurrent.Callable;
+    import java.util.concurrent.ConcurrentHashMap;
+    import java.util.concurrent.ConcurrentLinkedQueue;
+    import java.util.concurrent.ExecutionException;
+    import java.util.concurrent.ExecutorService;
+    import java.util.concurrent.Executors;
+    import java.util.concurrent.Future;
+    import java.util.concurrent.ScheduledExecutorService;
+    import java.util.concurrent.TimeUnit;
+    import java.util.concurrent.atomic.AtomicInteger;
+    import java.util.concurrent.locks.ReentrantReadWriteLock;
+    import java.util.function.IntConsumer;
+    import java.util.function.ObjLongConsumer;
+    import java.util.zip.CRC32;
 
 // Assignment.java (Represents an assignment)
 class Assignment {
+    public static final long NO_DUE_DATE = Long.MAX_VALUE;
+
+    private int id;
     private String details;
+    private volatile long dueAt;
+
+    public Assignment(String details) {
+        this(0, details, NO_DUE_DATE);
+    }
+
+    public Assignment(int id, String details, long dueAt) {
+        this.id = id;
+        this.details = details;
+        this.dueAt = dueAt;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getDetails() {
+        return details;
+    }
+
+    // Epoch milliseconds, or NO_DUE_DATE
+    public long getDueAt() {
+        return dueAt;
+    }
+
+    public void setDueAt(long dueAt) {
+        this.dueAt = dueAt;
+    }
+}
+
+// Student.java (Represents a student)
+class Student {
+    private String id;
+    private String name;
+
+    public Student(String id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
+
+// Classroom.java (Represents a classroom)
+class Classroom {
+    private String name;
+    private StudentRegistry registry;
+    private EnrollmentSet enrollment;
+    private List<Assignment> assignments;
+    private Map<Integer, Assignment> assignmentsById;
+    private Map<String, Assignment> assignmentsByDetails;
+    private SubmissionIndex submissions;
+    private volatile SubmissionLog submissionLog;  // null keeps changes in memory only
+    // Guards this classroom's state only, so unrelated classrooms never contend
+    private ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public Classroom(String name) {
+        this(name, new StudentRegistry());
+    }
+
+    public Classroom(String name, StudentRegistry registry) {
+        this.name = name;
+        this.registry = registry;
+        this.enrollment = new EnrollmentSet();
+        this.assignments = new ArrayList<>();
+        this.assignmentsById = new HashMap<>();
+        this.assignmentsByDetails = new HashMap<>();
+        this.submissions = new SubmissionIndex();
+    }
+
+    public void setSubmissionLog(SubmissionLog submissionLog) {
+        this.submissionLog = submissionLog;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void addStudent(Student student) {
+        if (enroll(student)) {
+            System.out.println("Student " + student.getId() + " has been enrolled in " + name + ".");
+        } else {
+            System.out.println("Student " + student.getId() + " is already enrolled in " + name + ".");
+        }
+    }
+
+    // Returns false if the student was already enrolled. Like every mutator here, it logs
+    // before changing anything and returns once the log record is on disk.
+    public boolean enroll(Student student) {
+        return enroll(student, true);
+    }
+
+    // With awaitDurable false the change is logged but may not be on disk yet; bulk callers
+    // (BatchRunner, ClassroomSnapshot.load) sync the log once at the end instead
+    boolean enroll(Student student, boolean awaitDurable) {
+        int ordinal = registry.register(student);
+        SubmissionLog log;
+        long sequence = 0;
+        lock.writeLock().lock();
+        try {
+            if (enrollment.contains(ordinal)) {
+                return false;
+            }
+            log = submissionLog;
+            if (log != null) {
+                sequence = log.appendEnroll(name, student);
+            }
+            enrollment.add(ordinal);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (awaitDurable) {
+            awaitDurable(log, sequence);
+        }
+        return true;
+    }
+
+    // Outside the lock, so writers of this classroom share one group commit
+    private static void awaitDurable(SubmissionLog log, long sequence) {
+        if (sequence > 0) {
+            log.awaitDurable(sequence);
+        }
+    }
+
+    public void removeStudent(String studentId) {
+        if (unenroll(studentId)) {
+            System.out.println("Student " + studentId + " has been removed from " + name + ".");
+        } else {
+            System.out.println("Student " + studentId + " is not enrolled in " + name + ".");
+        }
+    }
+
+    public boolean unenroll(String studentId) {
+        return unenroll(studentId, true);
+    }
+
+    boolean unenroll(String studentId, boolean awaitDurable) {
+        int ordinal = registry.ordinalOf(studentId);
+        if (ordinal < 0) {
+            return false;
+        }
+        SubmissionLog log;
+        long sequence = 0;
+        lock.writeLock().lock();
+        try {
+            if (!enrollment.contains(ordinal)) {
+                return false;
+            }
+            log = submissionLog;
+            if (log != null) {
+                sequence = log.appendUnenroll(name, studentId);
+            }
+            enrollment.remove(ordinal);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (awaitDurable) {
+            awaitDurable(log, sequence);
+        }
+        return true;
+    }
+
+    public boolean isEnrolled(String studentId) {
+        int ordinal = registry.ordinalOf(studentId);
+        if (ordinal < 0) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            return enrollment.contains(ordinal);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getStudentCount() {
+        lock.readLock().lock();
+        try {
+            return enrollment.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void scheduleAssignment(String details) {
+        Assignment assignment = addAssignment(details);
+        System.out.println("Assignment " + assignment.getId() + " for " + name + " has been scheduled: " + details);
+    }
+
+    // Ids are 1, 2, 3, ... within a classroom
+    public Assignment addAssignment(String details) {
+        return addAssignment(details, true);
+    }
+
+    Assignment addAssignment(String details, boolean awaitDurable) {
+        Assignment assignment;
+        SubmissionLog log;
+        long sequence = 0;
+        lock.writeLock().lock();
+        try {
+            assignment = new Assignment(assignments.size() + 1, details, Assignment.NO_DUE_DATE);
+            log = submissionLog;
+            if (log != null) {
+                sequence = log.appendAssignment(name, assignment);
+            }
+            assignments.add(assignment);
+            assignmentsById.put(assignment.getId(), assignment);
+            assignmentsByDetails.putIfAbsent(details, assignment);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (awaitDurable) {
+            awaitDurable(log, sequence);
+        }
+        return assignment;
+    }
+
+    // Replay path for SubmissionLog: adds the assignment unless this classroom already has it,
+    // as it does when the log is replayed on top of a snapshot taken after it was scheduled
+    void restoreAssignment(int id, String details, long dueAt) {
+        lock.writeLock().lock();
+        try {
+            if (assignments.size() == id - 1) {
+                Assignment assignment = new Assignment(id, details, dueAt);
+                assignments.add(assignment);
+                assignmentsById.put(id, assignment);
+                assignmentsByDetails.putIfAbsent(details, assignment);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void setDueAt(Assignment assignment, long dueAt) {
+        setDueAt(assignment, dueAt, true);
+    }
+
+    void setDueAt(Assignment assignment, long dueAt, boolean awaitDurable) {
+        SubmissionLog log;
+        long sequence = 0;
+        lock.writeLock().lock();
+        try {
+            log = submissionLog;
+            if (log != null) {
+                sequence = log.appendDueAt(name, assignment.getId(), dueAt);
+            }
+            assignment.setDueAt(dueAt);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (awaitDurable) {
+            awaitDurable(log, sequence);
+        }
+    }
+
+    public Assignment getAssignment(int id) {
+        lock.readLock().lock();
+        try {
+            return assignmentsById.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Accepts an assignment id or the exact details it was scheduled with
+    public Assignment findAssignment(String idOrDetails) {
+        lock.readLock().lock();
+        try {
+            try {
+                Assignment byId = assignmentsById.get(Integer.parseInt(idOrDetails));
+                if (byId != null) {
+                    return byId;
+                }
+            } catch (NumberFormatException e) {
+                // not an id; fall back to the details text
+            }
+            return assignmentsByDetails.get(idOrDetails);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void submitAssignment(String studentId, String details) {
+        Assignment assignment = findAssignment(details);
+        if (assignment == null) {
+            System.out.println("No assignment matching \"" + details + "\" in " + name + ".");
+        } else if (submit(studentId, assignment, details, System.currentTimeMillis()) == null) {
+            System.out.println("Student " + studentId + " is not enrolled in " + name + ".");
+        } else {
+            System.out.println("Assignment submitted by Student " + studentId + " in " + name + ": " + details);
+        }
+    }
+
+    // Records and logs a submission; null if the student is not enrolled. Returns, and so
+    // acknowledges it, only once the log record is on disk.
+    public Submission submit(String studentId, Assignment assignment, String details, long submittedAt) {
+        return submit(studentId, assignment, details, submittedAt, true);
+    }
+
+    Submission submit(String studentId, Assignment assignment, String details, long submittedAt, boolean awaitDurable) {
+        return record(studentId, assignment, details, submittedAt, submittedAt > assignment.getDueAt(), submissionLog,
+                awaitDurable);
+    }
+
+    // Replay and snapshot load path: keeps the recorded late flag, and logs only when a
+    // snapshot is loaded into a running manager. The student was enrolled when it was accepted but may have left since, so
+    // enrollment is not checked.
+    boolean restoreSubmission(int assignmentId, String studentId, String details, long submittedAt, boolean late) {
+        int ordinal = registry.ordinalOf(studentId);
+        if (ordinal < 0) {
+            ordinal = registry.register(new Student(studentId, "Student " + studentId));
+        }
+        lock.writeLock().lock();
+        try {
+            if (!assignmentsById.containsKey(assignmentId)) {
+                return false;
+            }
+            Submission submission = new Submission(name, assignmentId, studentId, details, submittedAt, late);
+            SubmissionLog log = submissionLog;
+            if (log != null) {
+                log.append(submission);  // a snapshot loaded into a running manager; the loader syncs
+            }
+            submissions.add(submission, ordinal);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Logs under the lock, like every roster change, so a replay sees enrollments and
+    // submissions in the order they happened; a log writer far behind briefly stalls this
+    // classroom. The wait for the disk happens after the lock is released.
+    private Submission record(String studentId, Assignment assignment, String details, long submittedAt, boolean late,
+                              SubmissionLog log, boolean awaitDurable) {
+        int ordinal = registry.ordinalOf(studentId);
+        if (ordinal < 0) {
+            return null;
+        }
+        Submission submission;
+        long sequence = 0;
+        lock.writeLock().lock();
+        try {
+            if (!enrollment.contains(ordinal)) {
+                return null;
+            }
+            submission = new Submission(name, assignment.getId(), studentId, details, submittedAt, late);
+            if (log != null) {
+                sequence = log.append(submission);
+            }
+            submissions.add(submission, ordinal);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (awaitDurable) {
+            awaitDurable(log, sequence);
+        }
+        return submission;
+    }
+
+    // Enrolled students with no submission for the assignment, in enrollment order
+    public List<Student> getMissingSubmissions(int assignmentId) {
+        List<Student> missing = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            enrollment.page(0, Integer.MAX_VALUE, ordinal -> {
+                if (!submissions.hasSubmitted(assignmentId, ordinal)) {
+                    missing.add(registry.get(ordinal));
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return missing;
+    }
+
+    public List<Submission> getLateSubmissions(int assignmentId) {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(submissions.getLate(assignmentId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Submission> getSubmissions(String studentId) {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(submissions.getByStudent(studentId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Student> getStudents() {
+        List<Student> students = new ArrayList<>();
+        getStudents(0, Integer.MAX_VALUE, students);
+        return students;
+    }
+
+    // One page of students in enrollment order; pass the returned cursor back for the
+    // next page (start with 0), -1 means there are no more. Enrollments between pages
+    // never make a student appear twice or be skipped.
+    public int getStudents(int cursor, int limit, List<Student> page) {
+        lock.readLock().lock();
+        try {
+            return enrollment.page(cursor, limit, ordinal -> page.add(registry.get(ordinal)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Everything ClassroomSnapshot stores for this classroom, taken under one read lock
+    // together with the log position, so records before it are in the image and none after
+    ClassroomSnapshot.Image capture() {
+        ClassroomSnapshot.Image image = new ClassroomSnapshot.Image();
+        image.name = name;
+        lock.readLock().lock();
+        try {
+            SubmissionLog log = submissionLog;
+            image.logPosition = log == null ? 0 : log.position();
+            image.assignments = new ArrayList<>(assignments);
+            image.dueAt = new long[assignments.size()];
+            for (int i = 0; i < image.dueAt.length; i++) {
+                image.dueAt[i] = assignments.get(i).getDueAt();
+            }
+            image.enrolled = enrollment.toArray();
+            image.submissions = new ArrayList<>(submissions.getAll());
+        } finally {
+            lock.readLock().unlock();
+        }
+        return image;
+    }
+
+    // Snapshot load path: enrolls registered ordinals in one write-locked pass, logging them
+    // when a snapshot is loaded into a running manager; the loader syncs the log at the end
+    void restoreEnrollment(int[] ordinals) {
+        lock.writeLock().lock();
+        try {
+            SubmissionLog log = submissionLog;
+            for (int ordinal : ordinals) {
+                if (!enrollment.contains(ordinal)) {
+                    if (log != null) {
+                        log.appendEnroll(name, registry.get(ordinal));
+                    }
+                    enrollment.add(ordinal);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Assignment> getAssignments() {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(assignments);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void listStudents() {
+        StringBuilder out = new StringBuilder("Students in ").append(name).append(":\n");
+        lock.readLock().lock();
+        try {
+            enrollment.page(0, Integer.MAX_VALUE, ordinal -> {
+                Student student = registry.get(ordinal);
+                out.append("- ").append(student.getName()).append(" (ID: ").append(student.getId()).append(")\n");
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        System.out.print(out);
+    }
+}
+
+// StudentRegistry.java (Interns every student once and hands out dense int ordinals)
+// Thread-safe: lookups are lock-free; only registering a new student takes the monitor.
+class StudentRegistry {
+    private ConcurrentHashMap<String, Integer> ordinals = new ConcurrentHashMap<>();
+    private volatile Student[] students = new Student[16];
+    private int size;
+
+    // Returns the student's ordinal, registering the student on first sight
+    public int register(Student student) {
+        Integer ordinal = ordinals.get(student.getId());
+        return ordinal != null ? ordinal : registerSlow(student);
+    }
+
+    private synchronized int registerSlow(Student student) {
+        Integer existing = ordinals.get(student.getId());
+        if (existing != null) {
+            return existing;
+        }
+        Student[] current = students;
+        if (size == current.length) {
+            current = Arrays.copyOf(current, size * 2);
+        }
+        current[size] = student;
+        students = current;  // publish before the ordinal becomes visible
+        ordinals.put(student.getId(), size);
+        return size++;
+    }
+
+    // -1 if the id was never registered
+    public int ordinalOf(String studentId) {
+        Integer ordinal = ordinals.get(studentId);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    // Only for ordinals obtained from register or ordinalOf
+    public Student get(int ordinal) {
+        return students[ordinal];
+    }
+
+    public int size() {
+        return ordinals.size();
+    }
+}
+
+// IntIntMap.java (Open-addressing int -> int hash map with linear probing; keys must be >= 0)
+class IntIntMap {
+    private static final int EMPTY = -1;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+
+    public IntIntMap() {
+        keys = new int[8];
+        values = new int[8];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    public int get(int key, int missing) {
+        int mask = keys.length - 1;
+        for (int slot = hash(key) & mask; keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+        }
+        return missing;
+    }
+
+    public void put(int key, int value) {
+        if ((size + 1) * 4 > keys.length * 3) {
+            resize(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (keys[slot] == EMPTY) {
+            keys[slot] = key;
+            size++;
+        }
+        values[slot] = value;
+    }
+
+    // Backward-shift deletion keeps probe chains intact without tombstones
+    public boolean remove(int key) {
+        int slot = indexOf(key);
+        if (slot < 0) {
+            return false;
+        }
+        int mask = keys.length - 1;
+        int next = (slot + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                keys[slot] = keys[next];
+                values[slot] = values[next];
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[slot] = EMPTY;
+        size--;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int indexOf(int key) {
+        int mask = keys.length - 1;
+        for (int slot = hash(key) & mask; keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int hash(int key) {
+        return key * 0x9E3779B9 ^ (key >>> 16);
+    }
+}
+
+// EnrollmentSet.java (Student ordinals in enrollment order with O(1) add/remove/contains)
+// Removal leaves a hole in the order array instead of shifting it; holes are compacted
+// away by a later enrollment once they outnumber the members. Every enrollment also gets
+// an ascending sequence number, and a paging cursor is the sequence number of the next
+// member rather than a position, so it stays valid across unenrollments and compaction.
+class EnrollmentSet {
+    private static final int HOLE = -1;
+
+    private IntIntMap positions = new IntIntMap();
+    private int[] order = new int[8];
+    private int[] sequences = new int[8];  // ascending, parallel to order
+    private int length;
+    private int nextSequence;
+
+    public boolean add(int ordinal) {
+        if (positions.get(ordinal, HOLE) != HOLE) {
+            return false;
+        }
+        if (nextSequence == Integer.MAX_VALUE) {
+            throw new IllegalStateException("Enrollment sequence exhausted");
+        }
+        if (length == order.length) {
+            if (length - positions.size() > positions.size()) {
+                compact();
+            } else {
+                order = Arrays.copyOf(order, order.length * 2);
+                sequences = Arrays.copyOf(sequences, order.length);
+            }
+        }
+        positions.put(ordinal, length);
+        order[length] = ordinal;
+        sequences[length++] = nextSequence++;
+        return true;
+    }
+
+    public boolean remove(int ordinal) {
+        int position = positions.get(ordinal, HOLE);
+        if (position == HOLE) {
+            return false;
+        }
+        positions.remove(ordinal);
+        order[position] = HOLE;
+        return true;
+    }
+
+    public boolean contains(int ordinal) {
+        return positions.get(ordinal, HOLE) != HOLE;
+    }
+
+    public int size() {
+        return positions.size();
+    }
+
+    // Feeds up to limit members from cursor onwards (start at 0) to the consumer in
+    // enrollment order; returns the cursor for the next page, or -1 at the end. Passing
+    // -1 back yields an empty page.
+    public int page(int cursor, int limit, IntConsumer consumer) {
+        if (cursor == -1) {
+            return -1;
+        }
+        if (cursor < 0) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        int delivered = 0;
+        int position = firstAtOrAfter(cursor);
+        while (position < length) {
+            if (order[position] != HOLE) {
+                if (delivered == limit) {
+                    return sequences[position];
+                }
+                consumer.accept(order[position]);
+                delivered++;
+            }
+            position++;
+        }
+        return -1;
+    }
+
+    // Members in enrollment order
+    public int[] toArray() {
+        int[] members = new int[positions.size()];
+        int count = 0;
+        for (int position = 0; position < length; position++) {
+            if (order[position] != HOLE) {
+                members[count++] = order[position];
+            }
+        }
+        return members;
+    }
+
+    // First position whose sequence number is at least sequence
+    private int firstAtOrAfter(int sequence) {
+        int low = 0;
+        int high = length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sequences[middle] < sequence) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void compact() {
+        int write = 0;
+        for (int read = 0; read < length; read++) {
+            if (order[read] != HOLE) {
+                order[write] = order[read];
+                sequences[write] = sequences[read];
+                positions.put(order[write], write);
+                write++;
+            }
+        }
+        length = write;
+    }
+}
+
+// Submission.java (Represents one student's submission of an assignment)
+class Submission {
+    private String classroomName;
+    private int assignmentId;
+    private String studentId;
+    private String details;
+    private long submittedAt;
+    private boolean late;
+
+    public Submission(String classroomName, int assignmentId, String studentId, String details, long submittedAt, boolean late) {
+        this.classroomName = classroomName;
+        this.assignmentId = assignmentId;
+        this.studentId = studentId;
+        this.details = details;
+        this.submittedAt = submittedAt;
+        this.late = late;
+    }
+
+    public String getClassroomName() {
+        return classroomName;
+    }
+
+    public int getAssignmentId() {
+        return assignmentId;
+    }
+
+    public String getStudentId() {
+        return studentId;
+    }
+
+    public String getDetails() {
+        return details;
+    }
+
+    public long getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public boolean isLate() {
+        return late;
+    }
+
+    @Override
+    public String toString() {
+        return "Assignment " + assignmentId + " by Student " + studentId + " at " + Instant.ofEpochMilli(submittedAt)
+                + (late ? " (late)" : "") + ": " + details;
+    }
+}
+
+// SubmissionIndex.java (Per-classroom submission lookups: by assignment and student, late ones, by student)
+class SubmissionIndex {
+    private Map<Integer, IntIntMap> latestByAssignment = new HashMap<>();  // student ordinal -> submission
+    private Map<Integer, List<Submission>> lateByAssignment = new HashMap<>();
+    private Map<String, List<Submission>> byStudent = new HashMap<>();
+    private List<Submission> submissions = new ArrayList<>();
+
+    public void add(Submission submission, int studentOrdinal) {
+        latestByAssignment.computeIfAbsent(submission.getAssignmentId(), id -> new IntIntMap())
+                .put(studentOrdinal, submissions.size());
+        submissions.add(submission);
+        if (submission.isLate()) {
+            lateByAssignment.computeIfAbsent(submission.getAssignmentId(), id -> new ArrayList<>()).add(submission);
+        }
+        byStudent.computeIfAbsent(submission.getStudentId(), id -> new ArrayList<>()).add(submission);
+    }
+
+    public boolean hasSubmitted(int assignmentId, int studentOrdinal) {
+        IntIntMap latest = latestByAssignment.get(assignmentId);
+        return latest != null && latest.get(studentOrdinal, -1) >= 0;
+    }
+
+    public List<Submission> getLate(int assignmentId) {
+        return lateByAssignment.getOrDefault(assignmentId, Collections.emptyList());
+    }
+
+    public List<Submission> getByStudent(String studentId) {
+        return byStudent.getOrDefault(studentId, Collections.emptyList());
+    }
+
+    // Every submission in the order it was recorded
+    public List<Submission> getAll() {
+        return submissions;
+    }
+}
+
+// SubmissionLog.java (Append-only on-disk log of submissions and roster changes, written by a background thread)
+// Appends only encode into an in-memory buffer and return a sequence number; the writer
+// takes whatever has accumulated, writes it in one FileChannel call and forces it once
+// (group commit), and awaitDurable(sequence) tells a caller its record is on disk.
+// The file is a [magic int][base offset long] header followed by records [body length int]
+// [CRC32 of body int][body], the body being [type byte][classroom][id int][text][more text]
+// [value long][flag byte], strings as length-prefixed UTF-8; what the fields hold depends
+// on the type. A torn or corrupt tail is cut off on open, so new records never land behind
+// it. Records are addressed by logical offset, base + (file position - HEADER_SIZE), which
+// stays the same when compact() drops the records a snapshot covers and raises the base.
+class SubmissionLog implements Closeable {
+    static final int MAGIC = 0x534C4732;  // "SLG2"
+    static final int HEADER_SIZE = 12;
+    static final byte SUBMISSION = 1;      // id = assignment, text = student, more = details, value = time, flag = late
+    static final byte ADD_CLASSROOM = 2;
+    static final byte ENROLL = 3;          // text = student id, more = student name
+    static final byte UNENROLL = 4;        // text = student id
+    static final byte ADD_ASSIGNMENT = 5;  // id, more = details, value = due at
+    static final byte SET_DUE = 6;         // id, value = due at
+    private static final int MAX_PENDING_BYTES = 8 << 20;  // producers wait beyond this
+
+    private Path path;
+    private FileChannel channel;
+    private long base;       // logical offset of the first record in the file
+    private long endOffset;  // logical offset the next record will get
+    private ByteBuffer pending = ByteBuffer.allocate(256 * 1024);
+    private ByteBuffer writing = ByteBuffer.allocate(256 * 1024);
+    private CRC32 crc = new CRC32();
+    private long appendedSequence;
+    private long durableSequence;
+    private IOException failure;
+    private boolean closed;
+    private boolean compacting;
+    private Thread writer;
+
+    public SubmissionLog(Path path) throws IOException {
+        this(path, 0);
+    }
+
+    // A new file starts at logical offset initialOffset, e.g. past everything the snapshot it
+    // will be replayed on top of covers
+    public SubmissionLog(Path path, long initialOffset) throws IOException {
+        this.path = path;
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() < HEADER_SIZE) {
+                channel.truncate(0);
+                channel.write(ByteBuffer.allocate(HEADER_SIZE).putInt(0, MAGIC).putLong(4, initialOffset), 0);
+                channel.force(true);
+                base = initialOffset;
+            } else {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                channel.read(header, 0);
+                if (header.getInt(0) != MAGIC) {
+                    throw new IOException("Not a submission log: " + path);
+                }
+                base = header.getLong(4);
+            }
+            long validEnd = scan(null);
+            if (validEnd < channel.size()) {
+                channel.truncate(validEnd);
+                channel.force(true);
+            }
+            channel.position(validEnd);
+            endOffset = base + validEnd - HEADER_SIZE;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        writer = new Thread(this::writeLoop, "submission-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Each append returns a sequence number to pass to awaitDurable
+    public long append(Submission submission) {
+        return put(SUBMISSION, submission.getClassroomName(), submission.getAssignmentId(), submission.getStudentId(),
+                submission.getDetails(), submission.getSubmittedAt(), submission.isLate());
+    }
+
+    public long appendClassroom(String classroom) {
+        return put(ADD_CLASSROOM, classroom, 0, "", "", 0, false);
+    }
+
+    public long appendEnroll(String classroom, Student student) {
+        return put(ENROLL, classroom, 0, student.getId(), student.getName(), 0, false);
+    }
+
+    public long appendUnenroll(String classroom, String studentId) {
+        return put(UNENROLL, classroom, 0, studentId, "", 0, false);
+    }
+
+    public long appendAssignment(String classroom, Assignment assignment) {
+        return put(ADD_ASSIGNMENT, classroom, assignment.getId(), "", assignment.getDetails(), assignment.getDueAt(), false);
+    }
+
+    public long appendDueAt(String classroom, int assignmentId, long dueAt) {
+        return put(SET_DUE, classroom, assignmentId, "", "", dueAt, false);
+    }
+
+    // Encodes the record into the pending buffer. Waits while the writer is more than
+    // MAX_PENDING_BYTES behind, so a deadline spike slows intake instead of growing without
+    // bound, and fails fast once the log is closed or the writer has stopped.
+    private synchronized long put(byte type, String classroom, int id, String text, String more, long value,
+                                  boolean flag) {
+        while ((compacting || pending.position() >= MAX_PENDING_BYTES) && failure == null && !closed) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while logging", e);
+            }
+        }
+        if (closed) {
+            throw new IllegalStateException("Submission log is closed");
+        }
+        if (failure != null) {
+            throw new UncheckedIOException("Submission log failed; no further writes are accepted", failure);
+        }
+        int start = pending.position();
+        pending = encode(type, classroom, id, text, more, value, flag, pending, crc);
+        endOffset += pending.position() - start;
+        notifyAll();
+        return ++appendedSequence;
+    }
+
+    // Logical offset the next record will get. A classroom snapshot reads it under the
+    // classroom's lock: that classroom's records before it are in the snapshot, the rest not.
+    public synchronized long position() {
+        return endOffset;
+    }
+
+    // Blocks until the record with this sequence number has been forced to disk
+    public synchronized void awaitDurable(long sequence) {
+        boolean interrupted = false;
+        while (durableSequence < sequence && failure == null) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (durableSequence < sequence) {
+            throw new UncheckedIOException("Submission log write failed", failure);
+        }
+    }
+
+    // Blocks until everything appended so far is on disk
+    public synchronized void sync() {
+        awaitDurable(appendedSequence);
+    }
+
+    // Group commit: takes whatever has accumulated, writes it in one FileChannel call and
+    // forces it once, then wakes every caller whose record it covered
+    private void writeLoop() {
+        try {
+            while (true) {
+                long batchSequence;
+                synchronized (this) {
+                    while (pending.position() == 0 && !closed) {
+                        wait();
+                    }
+                    if (pending.position() == 0) {
+                        return;
+                    }
+                    ByteBuffer swap = writing;
+                    writing = pending;
+                    pending = swap;
+                    batchSequence = appendedSequence;
+                    notifyAll();  // producers waiting for room
+                }
+                writing.flip();
+                while (writing.hasRemaining()) {
+                    channel.write(writing);
+                }
+                channel.force(false);
+                writing.clear();
+                synchronized (this) {
+                    durableSequence = batchSequence;
+                    notifyAll();
+                }
+            }
+        } catch (IOException e) {
+            fail(e);
+        } catch (InterruptedException e) {
+            fail(new InterruptedIOException("Submission log writer interrupted"));
+        } catch (RuntimeException | Error e) {
+            fail(new IOException("Submission log writer died", e));
+            throw e;
+        }
+    }
+
+    // Wakes every waiter; records still pending will never be written
+    private synchronized void fail(IOException e) {
+        if (failure == null) {
+            failure = e;
+        }
+        notifyAll();
+    }
+
+    private static ByteBuffer encode(byte type, String classroomName, int id, String textValue, String moreValue,
+                                     long value, boolean flag, ByteBuffer buffer, CRC32 crc) {
+        byte[] classroom = classroomName.getBytes(StandardCharsets.UTF_8);
+        byte[] text = textValue.getBytes(StandardCharsets.UTF_8);
+        byte[] more = moreValue.getBytes(StandardCharsets.UTF_8);
+        int length = 1 + 4 + classroom.length + 4 + 4 + text.length + 4 + more.length + 8 + 1;
+        if (buffer.remaining() < 8 + length) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + 8 + length));
+            buffer.flip();
+            buffer = larger.put(buffer);
+        }
+        int start = buffer.position();
+        buffer.putInt(length).putInt(0).put(type);
+        buffer.putInt(classroom.length).put(classroom).putInt(id);
+        buffer.putInt(text.length).put(text).putInt(more.length).put(more);
+        buffer.putLong(value).put((byte) (flag ? 1 : 0));
+        crc.reset();
+        crc.update(buffer.duplicate().position(start + 8).limit(start + 8 + length));
+        buffer.putInt(start + 4, (int) crc.getValue());
+        return buffer;
+    }
+
+    // Re-applies every logged change the snapshot loaded before it does not already hold:
+    // records before snapshot.getLogOffset() are skipped outright, and a classroom's records
+    // before the position it was captured at are skipped for that classroom. A log that ends
+    // before the snapshot's offset is not the one the snapshot was taken against, so all of
+    // it is replayed. Returns the number of submissions restored.
+    public int replay(ClassroomManager manager, ClassroomSnapshot snapshot) throws IOException {
+        boolean covered = snapshot != null && position() >= snapshot.getLogOffset();
+        long coveredOffset = covered ? snapshot.getLogOffset() : Long.MIN_VALUE;
+        Map<String, Long> positions = covered ? snapshot.getLogPositions() : Collections.emptyMap();
+        int[] restored = new int[1];
+        scan((body, offset) -> {
+            if (offset < coveredOffset) {
+                return;
+            }
+            byte type = body.get();
+            String name = readString(body);
+            Long capturedAt = positions.get(name);
+            if (capturedAt != null && offset < capturedAt) {
+                return;
+            }
+            int id = body.getInt();
+            String text = readString(body);
+            String more = readString(body);
+            long value = body.getLong();
+            boolean flag = body.get() != 0;
+            // Classrooms are never removed, so any record implies its classroom; this also covers
+            // a creation record that a compaction dropped or that follows the classroom's first change
+            Classroom classroom = manager.getOrCreateClassroom(name, null);
+            if (type == SUBMISSION) {
+                if (classroom.restoreSubmission(id, text, more, value, flag)) {
+                    restored[0]++;
+                }
+            } else if (type == ENROLL) {
+                classroom.enroll(new Student(text, more));
+            } else if (type == UNENROLL) {
+                classroom.unenroll(text);
+            } else if (type == ADD_ASSIGNMENT) {
+                classroom.restoreAssignment(id, more, value);
+            } else if (type == SET_DUE) {
+                Assignment assignment = classroom.getAssignment(id);
+                if (assignment != null) {
+                    assignment.setDueAt(value);
+                }
+            }
+        });
+        return restored[0];
+    }
+
+    // Hands each intact record body and its logical offset to the consumer, if any, and
+    // returns the file position where the intact part ends
+    private long scan(ObjLongConsumer<ByteBuffer> consumer) throws IOException {
+        long size = channel.size();
+        if (size <= HEADER_SIZE) {
+            return HEADER_SIZE;
+        }
+        MappedByteBuffer log = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        log.position(HEADER_SIZE);
+        CRC32 crc = new CRC32();
+        long end = HEADER_SIZE;
+        while (log.remaining() >= 8) {
+            int length = log.getInt();
+            int checksum = log.getInt();
+            if (length <= 0 || length > log.remaining()) {
+                break;
+            }
+            ByteBuffer body = log.slice();
+            body.limit(length);
+            crc.reset();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            if (consumer != null) {
+                consumer.accept(body, base + end - HEADER_SIZE);
+            }
+            log.position(log.position() + length);
+            end = log.position();
+        }
+        return end;
+    }
+
+    // A snapshot now holds every record before coveredOffset: rewrite the file with only the
+    // records after it and raise the base. Appends wait while this runs; the new file replaces
+    // the old one by an atomic rename, so a crash leaves one or the other.
+    public synchronized void compact(long coveredOffset) throws IOException {
+        if (coveredOffset <= base || coveredOffset > endOffset) {
+            return;
+        }
+        compacting = true;
+        try {
+            awaitDurable(appendedSequence);
+            long size = channel.size();
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(0, MAGIC).putLong(4, coveredOffset);
+                while (header.hasRemaining()) {
+                    out.write(header);
+                }
+                for (long copied = HEADER_SIZE + coveredOffset - base; copied < size; ) {
+                    copied += channel.transferTo(copied, size - copied, out);
+                }
+                out.force(true);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            FileChannel old = channel;
+            try {
+                channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                channel.position(channel.size());
+            } catch (IOException e) {
+                fail(e);  // the old channel now points at an unlinked file
+                throw e;
+            }
+            old.close();
+            base = coveredOffset;
+        } finally {
+            compacting = false;
+            notifyAll();
+        }
+    }
+
+    public synchronized long size() throws IOException {
+        return channel.size();
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // The writer drains what is pending before it exits; a failed log still closes
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            notifyAll();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        synchronized (this) {
+            if (failure != null) {
+                throw new IOException("Submission log write failed", failure);
+            }
+        }
+    }
+}
+
+// ClassroomSnapshot.java (Compact binary image of every roster, assignment list and submission)
+// Layout: [magic int][log offset long][string count int][strings...][student count int]
+// [students...][classroom count int][classrooms...]. Each distinct string (ids, names,
+// details) is stored once as length-prefixed UTF-8 and referenced by index; a student is
+// [id][name] indexes in registry ordinal order, and a classroom is [name][log position long]
+// [assignment count int][details, due at long...][enrolled count int][student ordinals...]
+// [submission count int][assignment id int, student, details, submitted at long, late byte...].
+// The log offset and positions tie the snapshot to the SubmissionLog: records before the
+// offset are all in the snapshot, and a classroom's records before its position are in its
+// image. Written to a temporary file and atomically renamed; loaded through a memory map.
+class ClassroomSnapshot {
+    static final int MAGIC = 0x43534E32;  // "CSN2"
+
+    private Path path;
+    private long logOffset;
+    private Map<String, Long> logPositions = Collections.emptyMap();
+
+    public ClassroomSnapshot(Path path) {
+        this.path = path;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    // Log offset covered by the snapshot last written or loaded
+    public long getLogOffset() {
+        return logOffset;
+    }
+
+    // Log position each classroom was captured at, from the snapshot last loaded
+    public Map<String, Long> getLogPositions() {
+        return logPositions;
+    }
+
+    // One classroom's state, captured under its lock by Classroom.capture()
+    static class Image {
+        String name;
+        long logPosition;
+        List<Assignment> assignments;
+        long[] dueAt;
+        int[] enrolled;
+        List<Submission> submissions;
+    }
+
+    public void write(ClassroomManager manager) throws IOException {
+        // Read before the classrooms are listed, so every classroom created after it logs its
+        // records after it too, and every captured position is at or past it
+        long offset = manager.getSubmissionLogPosition();
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        List<Image> images = new ArrayList<>();
+        for (Classroom classroom : manager.getClassrooms()) {
+            Image image = classroom.capture();
+            intern(strings, image.name);
+            for (Assignment assignment : image.assignments) {
+                intern(strings, assignment.getDetails());
+            }
+            for (Submission submission : image.submissions) {
+                intern(strings, submission.getStudentId());
+                intern(strings, submission.getDetails());
+            }
+            images.add(image);
+        }
+        // Read after the rosters, so every captured ordinal is below it
+        StudentRegistry registry = manager.getStudentRegistry();
+        int studentCount = registry.size();
+        int[] studentStrings = new int[studentCount * 2];
+        for (int ordinal = 0; ordinal < studentCount; ordinal++) {
+            Student student = registry.get(ordinal);
+            studentStrings[ordinal * 2] = intern(strings, student.getId());
+            studentStrings[ordinal * 2 + 1] = intern(strings, student.getName());
+        }
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+            buffer.putInt(MAGIC).putLong(offset).putInt(strings.size());
+            for (String value : strings.keySet()) {
+                buffer = putString(channel, buffer, value);
+            }
+            buffer.putInt(studentCount);
+            for (int index : studentStrings) {
+                buffer = reserve(channel, buffer, 4);
+                buffer.putInt(index);
+            }
+            buffer = reserve(channel, buffer, 4);
+            buffer.putInt(images.size());
+            for (Image image : images) {
+                buffer = reserve(channel, buffer, 16);
+                buffer.putInt(strings.get(image.name)).putLong(image.logPosition).putInt(image.assignments.size());
+                for (int i = 0; i < image.dueAt.length; i++) {
+                    buffer = reserve(channel, buffer, 12);
+                    buffer.putInt(strings.get(image.assignments.get(i).getDetails())).putLong(image.dueAt[i]);
+                }
+                buffer = reserve(channel, buffer, 4);
+                buffer.putInt(image.enrolled.length);
+                for (int ordinal : image.enrolled) {
+                    buffer = reserve(channel, buffer, 4);
+                    buffer.putInt(ordinal);
+                }
+                buffer = reserve(channel, buffer, 4);
+                buffer.putInt(image.submissions.size());
+                for (Submission submission : image.submissions) {
+                    buffer = reserve(channel, buffer, 21);
+                    buffer.putInt(submission.getAssignmentId()).putInt(strings.get(submission.getStudentId()))
+                            .putInt(strings.get(submission.getDetails())).putLong(submission.getSubmittedAt())
+                            .put((byte) (submission.isLate() ? 1 : 0));
+                }
+            }
+            drain(channel, buffer);
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logOffset = offset;
+    }
+
+    private static int intern(Map<String, Integer> strings, String value) {
+        Integer index = strings.putIfAbsent(value, strings.size());
+        return index == null ? strings.size() - 1 : index;
+    }
+
+    private static ByteBuffer putString(FileChannel channel, ByteBuffer buffer, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer = reserve(channel, buffer, 4 + bytes.length);
+        return buffer.putInt(bytes.length).put(bytes);
+    }
+
+    // Flushes the buffer to the channel when the next field would not fit
+    private static ByteBuffer reserve(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            drain(channel, buffer);
+            if (buffer.capacity() < bytes) {
+                buffer = ByteBuffer.allocate(bytes);
+            }
+        }
+        return buffer;
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // Adds the snapshot's classrooms to the manager and returns how many were restored.
+    // A classroom that already exists in memory is left as it is. Due dates go through the
+    // manager, so a load into a running manager arms their reminders too.
+    public int load(ClassroomManager manager) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer image = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (image.getInt() != MAGIC) {
+                throw new IOException("Not a classroom snapshot: " + path);
+            }
+            long offset = image.getLong();
+            String[] strings = new String[image.getInt()];
+            byte[] scratch = new byte[256];
+            for (int i = 0; i < strings.length; i++) {
+                int length = image.getInt();
+                if (length > scratch.length) {
+                    scratch = new byte[Math.max(length, scratch.length * 2)];
+                }
+                image.get(scratch, 0, length);
+                strings[i] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+            }
+            // Snapshot ordinals -> this registry's ordinals, which differ if it already had students
+            StudentRegistry registry = manager.getStudentRegistry();
+            int[] ordinals = new int[image.getInt()];
+            for (int i = 0; i < ordinals.length; i++) {
+                String id = strings[image.getInt()];
+                ordinals[i] = registry.register(new Student(id, strings[image.getInt()]));
+            }
+            Map<String, Long> positions = new HashMap<>();
+            int restored = 0;
+            int classroomCount = image.getInt();
+            for (int c = 0; c < classroomCount; c++) {
+                boolean[] created = new boolean[1];
+                String name = strings[image.getInt()];
+                positions.put(name, image.getLong());
+                Classroom classroom = manager.getOrCreateClassroom(name, created);
+                int assignmentCount = image.getInt();
+                for (int i = 0; i < assignmentCount; i++) {
+                    String details = strings[image.getInt()];
+                    long dueAt = image.getLong();
+                    if (created[0]) {
+                        Assignment assignment = classroom.addAssignment(details, false);
+                        if (dueAt != Assignment.NO_DUE_DATE) {
+                            manager.setDueAt(classroom, assignment, dueAt, false);
+                        }
+                    }
+                }
+                int[] enrolled = new int[image.getInt()];
+                for (int i = 0; i < enrolled.length; i++) {
+                    enrolled[i] = ordinals[image.getInt()];
+                }
+                if (created[0]) {
+                    classroom.restoreEnrollment(enrolled);
+                }
+                int submissionCount = image.getInt();
+                for (int i = 0; i < submissionCount; i++) {
+                    int assignmentId = image.getInt();
+                    String studentId = strings[image.getInt()];
+                    String details = strings[image.getInt()];
+                    long submittedAt = image.getLong();
+                    boolean late = image.get() != 0;
+                    if (created[0]) {
+                        classroom.restoreSubmission(assignmentId, studentId, details, submittedAt, late);
+                    }
+                }
+                if (created[0]) {
+                    restored++;
+                }
+            }
+            manager.syncSubmissionLog();
+            logOffset = offset;
+            logPositions = positions;
+            return restored;
+        }
+    }
+}
+
+// TimerWheel.java (Hierarchical timing wheel: O(1) schedule and cancel, no thread per timer)
+// Four levels of 256 slots. Level l holds timers due within 256^(l+1) ticks, bucketed by
+// bits 8l..8l+7 of their deadline tick. Each tick expires one level-0 slot; whenever a
+// level's index wraps to 0, the current slot of the level above is cascaded down. Timers
+// further out than 2^32 ticks wait in the top level and are re-placed as it turns.
+// Not thread-safe on its own; ReminderScheduler guards it.
+class TimerWheel {
+    private static final int SLOT_BITS = 8;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    // Node of an intrusive circular list; each slot has a sentinel, so cancel() needs no lookup
+    static class Timer {
+        private final long deadlineTick;
+        private final Runnable task;
+        private Timer previous;
+        private Timer next;
+
+        private Timer(long deadlineTick, Runnable task) {
+            this.deadlineTick = deadlineTick;
+            this.task = task;
+        }
+
+        // False once the timer has expired or been cancelled
+        boolean isPending() {
+            return next != null;
+        }
+    }
+
+    private long tickMillis;
+    private long currentTick;  // the next tick to expire
+    private Timer[] slots = new Timer[LEVELS * SLOTS];
+    private int size;
+
+    public TimerWheel(long tickMillis, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+        for (int i = 0; i < slots.length; i++) {
+            Timer sentinel = new Timer(0, null);
+            sentinel.previous = sentinel;
+            sentinel.next = sentinel;
+            slots[i] = sentinel;
+        }
+    }
+
+    // The task runs from the first advanceTo() at or after deadlineMillis; never earlier
+    public Timer schedule(long deadlineMillis, Runnable task) {
+        Timer timer = new Timer(Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis), task);
+        place(timer);
+        size++;
+        return timer;
+    }
+
+    public boolean cancel(Timer timer) {
+        if (!timer.isPending()) {
+            return false;
+        }
+        unlink(timer);
+        size--;
+        return true;
+    }
 
-    public Assignment(String details) {
-        this.details = details;
+    // Moves time forward to nowMillis, adding the task of every timer now due to expired
+    public void advanceTo(long nowMillis, List<Runnable> expired) {
+        long target = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick <= target) {
+            Timer sentinel = slots[(int) (currentTick & MASK)];
+            for (Timer timer = sentinel.next; timer != sentinel; ) {
+                Timer next = timer.next;
+                unlink(timer);
+                size--;
+                expired.add(timer.task);
+                timer = next;
+            }
+            currentTick++;
+            cascade();
+        }
     }
 
-    public String getDetails() {
-        return details;
+    // Start of the next tick that has not expired yet
+    public long currentMillis() {
+        return currentTick * tickMillis;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            int shift = SLOT_BITS * level;
+            if ((currentTick & ((1L << shift) - 1)) != 0) {
+                return;
+            }
+            Timer sentinel = slots[level * SLOTS + (int) ((currentTick >>> shift) & MASK)];
+            Timer timer = sentinel.next;
+            sentinel.previous = sentinel;
+            sentinel.next = sentinel;
+            while (timer != sentinel) {
+                Timer next = timer.next;
+                place(timer);
+                timer = next;
+            }
+        }
+    }
+
+    private void place(Timer timer) {
+        long tick = Math.max(timer.deadlineTick, currentTick);  // overdue timers expire next tick
+        long delta = tick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        if (level == LEVELS - 1) {
+            tick = currentTick + Math.min(delta, (1L << (SLOT_BITS * LEVELS)) - 1);
+        }
+        Timer sentinel = slots[level * SLOTS + (int) ((tick >>> (SLOT_BITS * level)) & MASK)];
+        timer.previous = sentinel.previous;
+        timer.next = sentinel;
+        sentinel.previous.next = timer;
+        sentinel.previous = timer;
+    }
+
+    private static void unlink(Timer timer) {
+        timer.previous.next = timer.next;
+        timer.next.previous = timer.previous;
+        timer.previous = null;
+        timer.next = null;
     }
 }
 
-// Student.java (Represents a student)
-class Student {
-    private String id;
-    private String name;
+// Reminder.java (One student's reminder of an upcoming due date)
+class Reminder {
+    private String classroomName;
+    private Assignment assignment;
+    private Student student;
+    private long dueAt;
+    private long leadMillis;
 
-    public Student(String id, String name) {
-        this.id = id;
-        this.name = name;
+    public Reminder(String classroomName, Assignment assignment, Student student, long dueAt, long leadMillis) {
+        this.classroomName = classroomName;
+        this.assignment = assignment;
+        this.student = student;
+        this.dueAt = dueAt;
+        this.leadMillis = leadMillis;
     }
 
-    public String getId() {
-        return id;
+    public String getClassroomName() {
+        return classroomName;
     }
 
-    public String getName() {
-        return name;
+    public Assignment getAssignment() {
+        return assignment;
+    }
+
+    public Student getStudent() {
+        return student;
+    }
+
+    public long getDueAt() {
+        return dueAt;
+    }
+
+    public long getLeadMillis() {
+        return leadMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "Student " + student.getId() + ": assignment " + assignment.getId() + " in " + classroomName
+                + " (" + assignment.getDetails() + ") is due " + Instant.ofEpochMilli(dueAt) + ".";
     }
 }
 
-// Classroom.java (Represents a classroom)
-class Classroom {
-    private String name;
-    private List<Student> students;
-    private List<Assignment> assignments;
+// ReminderSink.java (Where fired reminders go; called from the reminder pool's threads)
+interface ReminderSink {
+    void remind(Reminder reminder);
+}
 
-    public Classroom(String name) {
-        this.name = name;
-        this.students = new ArrayList<>();
-        this.assignments = new ArrayList<>();
+// InMemoryReminderSink.java (Collects reminders in process, for tests and tools)
+class InMemoryReminderSink implements ReminderSink {
+    private ConcurrentLinkedQueue<Reminder> reminders = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public void remind(Reminder reminder) {
+        reminders.add(reminder);
     }
 
-    public String getName() {
-        return name;
+    public List<Reminder> drain() {
+        List<Reminder> drained = new ArrayList<>();
+        Reminder reminder;
+        while ((reminder = reminders.poll()) != null) {
+            drained.add(reminder);
+        }
+        return drained;
     }
+}
 
-    public void addStudent(Student student) {
-        students.add(student);
-        System.out.println("Student " + student.getId() + " has been enrolled in " + name + ".");
+// ReminderScheduler.java (Reminds students who have not submitted, a lead time before each due date)
+// Each (assignment, lead time) pair is one timer in a TimerWheel that a single ticker thread
+// advances every tick. Due timers run on a small pool, which looks up the students still
+// missing a submission and passes one Reminder per student to the sink. Nothing scans the
+// classrooms periodically: a pending reminder costs only its wheel entry. Lead times that
+// have already passed when a due date is set are skipped.
+class ReminderScheduler implements Closeable {
+    private TimerWheel wheel;
+    private Map<Assignment, List<TimerWheel.Timer>> pending = new HashMap<>();  // guarded by this
+    private long[] leadMillis;
+    private ReminderSink sink;
+    private ExecutorService pool;
+    private ScheduledExecutorService ticker;
+
+    public ReminderScheduler(ReminderSink sink, long[] leadMillis, long tickMillis, long startMillis, int threads) {
+        this.sink = sink;
+        this.leadMillis = leadMillis.clone();
+        this.wheel = new TimerWheel(tickMillis, startMillis);
+        AtomicInteger threadIds = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "reminder-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
-    public void scheduleAssignment(String details) {
-        Assignment assignment = new Assignment(details);
-        assignments.add(assignment);
-        System.out.println("Assignment for " + name + " has been scheduled: " + details);
+    // Advances the wheel from the wall clock every tickMillis until closed
+    public void start(long tickMillis) {
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reminder-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(() -> advanceTo(System.currentTimeMillis()), tickMillis, tickMillis, TimeUnit.MILLISECONDS);
     }
 
-    public void submitAssignment(String studentId, String details) {
-        System.out.println("Assignment submitted by Student " + studentId + " in " + name + ": " + details);
+    // (Re)arms the reminders for an assignment after its due date was set or changed
+    public synchronized void watch(Classroom classroom, Assignment assignment) {
+        List<TimerWheel.Timer> timers = pending.remove(assignment);
+        if (timers != null) {
+            for (TimerWheel.Timer timer : timers) {
+                wheel.cancel(timer);
+            }
+        }
+        long dueAt = assignment.getDueAt();
+        if (dueAt == Assignment.NO_DUE_DATE) {
+            return;
+        }
+        timers = new ArrayList<>(leadMillis.length);
+        for (long lead : leadMillis) {
+            if (dueAt - lead >= wheel.currentMillis()) {
+                timers.add(wheel.schedule(dueAt - lead, () -> fire(classroom, assignment, dueAt, lead)));
+            }
+        }
+        if (!timers.isEmpty()) {
+            pending.put(assignment, timers);
+        }
     }
 
-    public List<Student> getStudents() {
-        return students;
+    // Called by the ticker; tests drive it directly with a simulated clock
+    public void advanceTo(long nowMillis) {
+        List<Runnable> expired = new ArrayList<>();
+        synchronized (this) {
+            wheel.advanceTo(nowMillis, expired);
+        }
+        for (Runnable task : expired) {
+            pool.execute(task);
+        }
     }
 
-    public List<Assignment> getAssignments() {
-        return assignments;
+    public synchronized int pendingCount() {
+        return wheel.size();
     }
 
-    public void listStudents() {
-        System.out.println("Students in " + name + ":");
-        for (Student student : students) {
-            System.out.println("- " + student.getName() + " (ID: " + student.getId() + ")");
+    private void fire(Classroom classroom, Assignment assignment, long dueAt, long lead) {
+        synchronized (this) {
+            List<TimerWheel.Timer> timers = pending.get(assignment);
+            if (timers != null) {
+                timers.removeIf(timer -> !timer.isPending());
+                if (timers.isEmpty()) {
+                    pending.remove(assignment);
+                }
+            }
+        }
+        if (assignment.getDueAt() != dueAt) {
+            return;  // moved since this timer was armed; watch() armed the new one
+        }
+        for (Student student : classroom.getMissingSubmissions(assignment.getId())) {
+            sink.remind(new Reminder(classroom.getName(), assignment, student, dueAt, lead));
+        }
+    }
+
+    // Stops the ticker and waits for reminders already handed to the pool
+    @Override
+    public void close() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+        pool.shutdown();
+        try {
+            pool.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 }
 
 // ClassroomManager.java (Singleton for managing classrooms)
 class ClassroomManager {
-    private static ClassroomManager instance;
-    private Map<String, Classroom> classrooms;
+    private ConcurrentHashMap<String, Classroom> classrooms;
+    private StudentRegistry students;  // shared, so each student is stored once across classrooms
+    private volatile SubmissionLog submissionLog;
+    private volatile ReminderScheduler reminders;
+    private Object checkpointLock = new Object();  // one checkpoint at a time; they share the temp file
+    private ScheduledExecutorService checkpointer;
+
+    // The CLI shares getInstance(); tools and benchmarks may build a private manager
+    ClassroomManager() {
+        classrooms = new ConcurrentHashMap<>();
+        students = new StudentRegistry();
+    }
 
-    private ClassroomManager() {
-        classrooms = new HashMap<>();
+    // Lazy, thread-safe initialization through the class loader
+    private static class Holder {
+        static final ClassroomManager INSTANCE = new ClassroomManager();
     }
 
     public static ClassroomManager getInstance() {
-        if (instance == null) {
-            instance = new ClassroomManager();
-        }
-        return instance;
+        return Holder.INSTANCE;
     }
 
     public void addClassroom(String name) {
-        classrooms.put(name, new Classroom(name));
-        System.out.println("Classroom " + name + " has been created.");
+        boolean[] created = new boolean[1];
+        getOrCreateClassroom(name, created);
+        if (created[0]) {
+            System.out.println("Classroom " + name + " has been created.");
+        } else {
+            System.out.println("Classroom " + name + " already exists.");
+        }
+    }
+
+    // Atomic: racing callers all get the same classroom; created[0] is set for the one that
+    // made it, which returns once the new classroom is logged on disk. The record is appended
+    // only once the classroom is in the map, so a checkpoint that misses the classroom also
+    // reads its log position before the record.
+    public Classroom getOrCreateClassroom(String name, boolean[] created) {
+        SubmissionLog log = submissionLog;
+        boolean[] made = new boolean[1];
+        Classroom result = classrooms.computeIfAbsent(name, key -> {
+            Classroom classroom = new Classroom(key, students);
+            classroom.setSubmissionLog(log);
+            made[0] = true;
+            return classroom;
+        });
+        if (made[0]) {
+            if (log != null) {
+                log.awaitDurable(log.appendClassroom(name));
+            }
+            if (created != null) {
+                created[0] = true;
+            }
+        }
+        return result;
     }
 
     public Classroom getClassroom(String name) {
         return classrooms.get(name);
     }
 
+    public StudentRegistry getStudentRegistry() {
+        return students;
+    }
+
+    public List<Classroom> getClassrooms() {
+        return new ArrayList<>(classrooms.values());
+    }
+
+    // Arms reminders for every assignment that already has a due date; later changes go
+    // through setDueAt
+    public void setReminderScheduler(ReminderScheduler reminders) {
+        this.reminders = reminders;
+        if (reminders != null) {
+            for (Classroom classroom : classrooms.values()) {
+                for (Assignment assignment : classroom.getAssignments()) {
+                    reminders.watch(classroom, assignment);
+                }
+            }
+        }
+    }
+
+    public void setDueAt(Classroom classroom, Assignment assignment, long dueAt) {
+        setDueAt(classroom, assignment, dueAt, true);
+    }
+
+    void setDueAt(Classroom classroom, Assignment assignment, long dueAt, boolean awaitDurable) {
+        classroom.setDueAt(assignment, dueAt, awaitDurable);
+        ReminderScheduler scheduler = reminders;
+        if (scheduler != null) {
+            scheduler.watch(classroom, assignment);
+        }
+    }
+
+    public int openSubmissionLog(Path path) throws IOException {
+        return openSubmissionLog(path, null);
+    }
+
+    // Replays the log into the existing classrooms, skipping what the snapshot loaded into
+    // them already holds, then records every new change to it. A new log starts past
+    // everything the snapshot covers.
+    public synchronized int openSubmissionLog(Path path, ClassroomSnapshot snapshot) throws IOException {
+        long initialOffset = 0;
+        if (snapshot != null) {
+            initialOffset = snapshot.getLogOffset();
+            for (long position : snapshot.getLogPositions().values()) {
+                initialOffset = Math.max(initialOffset, position);
+            }
+        }
+        SubmissionLog log = new SubmissionLog(path, initialOffset);
+        int restored;
+        try {
+            restored = log.replay(this, snapshot);
+        } catch (IOException | RuntimeException e) {
+            log.close();
+            throw e;
+        }
+        submissionLog = log;
+        for (Classroom classroom : classrooms.values()) {
+            classroom.setSubmissionLog(log);
+        }
+        return restored;
+    }
+
+    // Logical offset the next logged change will get; 0 without a log
+    long getSubmissionLogPosition() {
+        SubmissionLog log = submissionLog;
+        return log == null ? 0 : log.position();
+    }
+
+    // Writes the snapshot, then drops the log records it covers, so recovery reads the
+    // snapshot plus only what was logged after it. Writers keep running meanwhile; each
+    // classroom is captured under its own lock.
+    public void checkpoint(ClassroomSnapshot snapshot) throws IOException {
+        synchronized (checkpointLock) {
+            snapshot.write(this);
+            SubmissionLog log = submissionLog;
+            if (log != null) {
+                log.compact(snapshot.getLogOffset());
+            }
+        }
+    }
+
+    // Checkpoints in the background whenever the log has grown past maxLogBytes
+    public synchronized void startPeriodicCheckpoints(ClassroomSnapshot snapshot, long period, TimeUnit unit,
+                                                      long maxLogBytes) {
+        checkpointer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "classroom-checkpointer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checkpointer.scheduleWithFixedDelay(() -> {
+            try {
+                SubmissionLog log = submissionLog;
+                if (log != null && log.size() > maxLogBytes) {
+                    checkpoint(snapshot);
+                }
+            } catch (IOException | RuntimeException e) {
+                System.out.println("Checkpoint failed: " + e.getMessage());
+            }
+        }, period, period, unit);
+    }
+
+    // Waits until every change logged so far is on disk; bulk callers acknowledge after this
+    public void syncSubmissionLog() {
+        SubmissionLog log = submissionLog;
+        if (log != null) {
+            log.sync();
+        }
+    }
+
+    public synchronized void closeSubmissionLog() throws IOException {
+        if (checkpointer != null) {
+            checkpointer.shutdown();
+            try {
+                // let a running periodic checkpoint finish before the log goes away
+                checkpointer.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            checkpointer = null;
+        }
+        if (submissionLog != null) {
+            SubmissionLog log = submissionLog;
+            submissionLog = null;
+            for (Classroom classroom : classrooms.values()) {
+                classroom.setSubmissionLog(null);
+            }
+            log.close();
+        }
+    }
+
     public void listClassrooms() {
-        System.out.println("Available Classrooms:");
+        StringBuilder out = new StringBuilder("Available Classrooms:\n");
         for (String name : classrooms.keySet()) {
-            System.out.println("- " + name);
+            out.append("- ").append(name).append('\n');
+        }
+        System.out.print(out);
+    }
+}
+
+// CommandTokenizer.java (Splits a command line on whitespace without regexes or per-token copies)
+// Reused across lines: tokenize() only records token boundaries; strings are cut on demand.
+class CommandTokenizer {
+    private String line;
+    private int[] starts = new int[8];
+    private int[] ends = new int[8];
+    private int count;
+
+    // Returns the number of tokens on the line
+    public int tokenize(String line) {
+        this.line = line;
+        count = 0;
+        int length = line.length();
+        int i = 0;
+        while (true) {
+            while (i < length && line.charAt(i) <= ' ') {
+                i++;
+            }
+            if (i == length) {
+                return count;
+            }
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+                ends = Arrays.copyOf(ends, count * 2);
+            }
+            starts[count] = i;
+            while (i < length && line.charAt(i) > ' ') {
+                i++;
+            }
+            ends[count++] = i;
+        }
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public String token(int index) {
+        return line.substring(starts[index], ends[index]);
+    }
+
+    public boolean is(int index, String word) {
+        return ends[index] - starts[index] == word.length() && line.startsWith(word, starts[index]);
+    }
+
+    public boolean startsWith(int index, String prefix) {
+        return ends[index] - starts[index] >= prefix.length() && line.startsWith(prefix, starts[index]);
+    }
+
+    // Tokens from index to the end of the line, with their original spacing
+    public String rest(int index) {
+        return line.substring(starts[index], ends[count - 1]);
+    }
+}
+
+// BatchRunner.java (Applies a command file in bulk, quietly, in parallel across classrooms)
+// Every state-changing command touches exactly one classroom, so each chunk of the file is
+// grouped by classroom and every group is applied in file order on one worker while other
+// classrooms proceed in parallel; the outcome is the same as entering the lines one by one.
+// Query commands (list_*) have nothing to report in bulk and are counted as skipped.
+class BatchRunner {
+    private static final int CHUNK_OPS = 64 * 1024;  // bounds memory for very large files
+    private static final int MAX_REPORTED_ERRORS = 20;
+    private static final String[] COMMANDS = {"add_classroom", "add_student", "remove_student",
+            "schedule_assignment", "set_due", "submit_assignment"};
+    private static final int ADD_CLASSROOM = 0;
+    private static final int ADD_STUDENT = 1;
+    private static final int REMOVE_STUDENT = 2;
+    private static final int SCHEDULE_ASSIGNMENT = 3;
+    private static final int SET_DUE = 4;
+    private static final int SUBMIT_ASSIGNMENT = 5;
+
+    private ClassroomManager manager;
+    private int threads;
+
+    public BatchRunner(ClassroomManager manager, int threads) {
+        this.manager = manager;
+        this.threads = threads;
+    }
+
+    // One parsed line; arguments keep their meaning from the interactive command
+    private static class Operation {
+        final int line;
+        final int kind;
+        final String classroom;
+        final String argument;
+        final String details;
+
+        Operation(int line, int kind, String classroom, String argument, String details) {
+            this.line = line;
+            this.kind = kind;
+            this.classroom = classroom;
+            this.argument = argument;
+            this.details = details;
+        }
+    }
+
+    public static class Summary {
+        private long lines;
+        private long skipped;
+        private long failed;
+        private long[] applied = new long[COMMANDS.length];
+        private TreeMap<Integer, String> errors = new TreeMap<>();  // first few, by line number
+        private long nanos;
+
+        private void fail(int line, String message) {
+            failed++;
+            errors.put(line, message);
+            if (errors.size() > MAX_REPORTED_ERRORS) {
+                errors.remove(errors.lastKey());
+            }
+        }
+
+        public long getApplied() {
+            long total = 0;
+            for (long count : applied) {
+                total += count;
+            }
+            return total;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder out = new StringBuilder();
+            long total = getApplied();
+            out.append(String.format("Read %,d lines: %,d applied, %,d failed, %,d skipped%n", lines, total, failed, skipped));
+            for (int kind = 0; kind < COMMANDS.length; kind++) {
+                if (applied[kind] > 0) {
+                    out.append(String.format("  %-20s %,12d%n", COMMANDS[kind], applied[kind]));
+                }
+            }
+            for (Map.Entry<Integer, String> error : errors.entrySet()) {
+                out.append("  line ").append(error.getKey()).append(": ").append(error.getValue()).append('\n');
+            }
+            if (failed > errors.size()) {
+                out.append("  ... and ").append(failed - errors.size()).append(" more errors\n");
+            }
+            double seconds = nanos / 1e9;
+            out.append(String.format("Took %.3f s (%,.0f commands/s)", seconds, (total + failed) / Math.max(seconds, 1e-9)));
+            return out.toString();
+        }
+    }
+
+    public Summary run(Path file) throws IOException {
+        Summary summary = new Summary();
+        long start = System.nanoTime();
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8), 1 << 16)) {
+            CommandTokenizer tokenizer = new CommandTokenizer();
+            Map<String, List<Operation>> groups = new LinkedHashMap<>();
+            int buffered = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Operation operation = parse(tokenizer, line, (int) ++summary.lines, summary);
+                if (operation != null) {
+                    groups.computeIfAbsent(operation.classroom, name -> new ArrayList<>()).add(operation);
+                    if (++buffered == CHUNK_OPS) {
+                        apply(groups, workers, summary);
+                        groups.clear();
+                        buffered = 0;
+                    }
+                }
+            }
+            apply(groups, workers, summary);
+        } finally {
+            workers.shutdown();
+        }
+        // The commands were logged without waiting; one sync makes them durable before the
+        // summary acknowledges them
+        manager.syncSubmissionLog();
+        summary.nanos = System.nanoTime() - start;
+        return summary;
+    }
+
+    private static Operation parse(CommandTokenizer tokenizer, String line, int lineNumber, Summary summary) {
+        int count = tokenizer.tokenize(line);
+        if (count == 0 || tokenizer.startsWith(0, "#")) {
+            return null;  // blank line or comment
+        }
+        if (tokenizer.is(0, "add_classroom") && count == 2) {
+            return new Operation(lineNumber, ADD_CLASSROOM, tokenizer.token(1), null, null);
+        } else if (tokenizer.is(0, "add_student") && count == 3) {
+            return new Operation(lineNumber, ADD_STUDENT, tokenizer.token(2), tokenizer.token(1), null);
+        } else if (tokenizer.is(0, "remove_student") && count == 3) {
+            return new Operation(lineNumber, REMOVE_STUDENT, tokenizer.token(2), tokenizer.token(1), null);
+        } else if (tokenizer.is(0, "schedule_assignment") && count >= 3) {
+            return new Operation(lineNumber, SCHEDULE_ASSIGNMENT, tokenizer.token(1), null, tokenizer.rest(2));
+        } else if (tokenizer.is(0, "set_due") && count == 4) {
+            return new Operation(lineNumber, SET_DUE, tokenizer.token(1), tokenizer.token(2), tokenizer.token(3));
+        } else if (tokenizer.is(0, "submit_assignment") && count >= 4) {
+            return new Operation(lineNumber, SUBMIT_ASSIGNMENT, tokenizer.token(2), tokenizer.token(1), tokenizer.rest(3));
+        } else if (tokenizer.startsWith(0, "list_")) {
+            summary.skipped++;
+        } else {
+            summary.fail(lineNumber, "Invalid command: " + line.trim());
+        }
+        return null;
+    }
+
+    private void apply(Map<String, List<Operation>> groups, ExecutorService workers, Summary summary) {
+        List<Callable<Summary>> tasks = new ArrayList<>(groups.size());
+        for (Map.Entry<String, List<Operation>> group : groups.entrySet()) {
+            tasks.add(() -> applyGroup(group.getKey(), group.getValue()));
+        }
+        try {
+            for (Future<Summary> future : workers.invokeAll(tasks)) {
+                Summary result = future.get();
+                for (int kind = 0; kind < COMMANDS.length; kind++) {
+                    summary.applied[kind] += result.applied[kind];
+                }
+                summary.failed += result.failed - result.errors.size();
+                for (Map.Entry<Integer, String> error : result.errors.entrySet()) {
+                    summary.fail(error.getKey(), error.getValue());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while applying a batch", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Batch worker failed", e.getCause());
+        }
+    }
+
+    private Summary applyGroup(String name, List<Operation> operations) {
+        Summary result = new Summary();
+        Classroom classroom = manager.getClassroom(name);
+        for (Operation operation : operations) {
+            if (operation.kind == ADD_CLASSROOM) {
+                boolean[] created = new boolean[1];
+                classroom = manager.getOrCreateClassroom(name, created);
+                record(result, operation, created[0] ? null : "Classroom " + name + " already exists.");
+            } else if (classroom == null) {
+                result.fail(operation.line, "Classroom " + name + " does not exist.");
+            } else {
+                record(result, operation, apply(classroom, operation));
+            }
+        }
+        return result;
+    }
+
+    private static void record(Summary result, Operation operation, String error) {
+        if (error == null) {
+            result.applied[operation.kind]++;
+        } else {
+            result.fail(operation.line, error);
+        }
+    }
+
+    // Returns null on success, or the message the interactive command would have printed
+    private String apply(Classroom classroom, Operation operation) {
+        String name = classroom.getName();
+        switch (operation.kind) {
+            case ADD_STUDENT:
+                return classroom.enroll(new Student(operation.argument, "Student " + operation.argument), false)
+                        ? null : "Student " + operation.argument + " is already enrolled in " + name + ".";
+            case REMOVE_STUDENT:
+                return classroom.unenroll(operation.argument, false)
+                        ? null : "Student " + operation.argument + " is not enrolled in " + name + ".";
+            case SCHEDULE_ASSIGNMENT:
+                classroom.addAssignment(operation.details, false);
+                return null;
+            case SET_DUE: {
+                Assignment assignment = classroom.findAssignment(operation.argument);
+                if (assignment == null) {
+                    return "Assignment " + operation.argument + " does not exist in " + name + ".";
+                }
+                try {
+                    manager.setDueAt(classroom, assignment,
+                            LocalDateTime.parse(operation.details).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(),
+                            false);
+                    return null;
+                } catch (DateTimeException e) {
+                    return "Invalid due date. Use yyyy-MM-ddTHH:mm.";
+                }
+            }
+            default: {
+                Assignment assignment = classroom.findAssignment(operation.details);
+                if (assignment == null) {
+                    return "No assignment matching \"" + operation.details + "\" in " + name + ".";
+                }
+                return classroom.submit(operation.argument, assignment, operation.details, System.currentTimeMillis(), false) != null
+                        ? null : "Student " + operation.argument + " is not enrolled in " + name + ".";
+            }
         }
     }
 }
 
 // Main.java (User interaction and command processing)
 public class Main {
+    // Optional arguments: --batch <command-file> to apply a file and exit, --remind-hours
+    // <hours,...> for how long before a due date students are reminded (default 24,1; 0 turns
+    // reminders off), and a directory to keep the classroom snapshot and submission log in
     public static void main(String[] args) {
         ClassroomManager manager = ClassroomManager.getInstance();
         Scanner scanner = new Scanner(System.in);
+        String batchFile = null;
+        String dataDirectory = null;
+        String remindHours = "24,1";
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--batch") && i + 1 < args.length) {
+                batchFile = args[++i];
+            } else if (args[i].equals("--remind-hours") && i + 1 < args.length) {
+                remindHours = args[++i];
+            } else {
+                dataDirectory = args[i];
+            }
+        }
+        ClassroomSnapshot snapshot = null;
+        if (dataDirectory != null) {
+            try {
+                Path directory = Paths.get(dataDirectory);
+                Files.createDirectories(directory);
+                // Snapshot first; the log then replays only what was logged after it
+                snapshot = new ClassroomSnapshot(directory.resolve("classrooms.snapshot"));
+                if (Files.exists(snapshot.getPath())) {
+                    long start = System.nanoTime();
+                    int classrooms = snapshot.load(manager);
+                    System.out.println("Restored " + classrooms + " classrooms in " + (System.nanoTime() - start) / 1_000_000 + " ms.");
+                }
+                int restored = manager.openSubmissionLog(directory.resolve("submissions.log"), snapshot);
+                System.out.println("Restored " + restored + " submissions.");
+                manager.startPeriodicCheckpoints(snapshot, 1, TimeUnit.MINUTES, 16L << 20);
+            } catch (IOException e) {
+                System.out.println("Could not restore from " + dataDirectory + ": " + e.getMessage());
+                return;
+            }
+        }
+        if (batchFile != null) {
+            runBatch(manager, batchFile);
+            shutdown(manager, snapshot, null);
+            return;
+        }
+        ReminderScheduler reminders = null;
+        if (!remindHours.equals("0")) {
+            String[] hours = remindHours.split(",");
+            long[] leads = new long[hours.length];
+            for (int i = 0; i < hours.length; i++) {
+                leads[i] = Long.parseLong(hours[i].trim()) * 3_600_000L;
+            }
+            reminders = new ReminderScheduler(reminder -> System.out.println("\nReminder: " + reminder),
+                    leads, 1000, System.currentTimeMillis(), 2);
+            reminders.start(1000);
+            manager.setReminderScheduler(reminders);
+        }
 
         System.out.println("Welcome to the Virtual Classroom Manager!");
-        System.out.println("Commands: add_classroom, add_student, schedule_assignment, submit_assignment, list_students, list_classrooms, exit");
+        System.out.println("Commands: add_classroom, add_student, remove_student, schedule_assignment, set_due, submit_assignment, list_missing, list_late, list_submissions, list_students, list_classrooms, run_batch, save_snapshot, load_snapshot, exit");
 
         while (true) {
             System.out.print("\nEnter command: ");
@@ -151,6 +2346,19 @@ public class Main {
                     }
                     break;
 
+                case "remove_student":
+                    if (command.length == 3) {
+                        Classroom classroom = manager.getClassroom(command[2]);
+                        if (classroom != null) {
+                            classroom.removeStudent(command[1]);
+                        } else {
+                            System.out.println("Classroom " + command[2] + " does not exist.");
+                        }
+                    } else {
+                        System.out.println("Usage: remove_student [student_id] [class_name]");
+                    }
+                    break;
+
                 case "schedule_assignment":
                     if (command.length >= 3) {
                         String classroomName = command[1];
@@ -184,7 +2392,7 @@ public class Main {
                             System.out.println("Classroom " + classroomName + " does not exist.");
                         }
                     } else {
-                        System.out.println("Usage: submit_assignment [student_id] [class_name] [assignment_details]");
+                        System.out.println("Usage: submit_assignment [student_id] [class_name] [assignment_id or assignment_details]");
                     }
                     break;
 
@@ -202,13 +2410,111 @@ public class Main {
                     }
                     break;
 
+                case "set_due":
+                    if (command.length == 4) {
+                        Classroom classroom = manager.getClassroom(command[1]);
+                        Assignment assignment = classroom == null ? null : classroom.findAssignment(command[2]);
+                        if (classroom == null) {
+                            System.out.println("Classroom " + command[1] + " does not exist.");
+                        } else if (assignment == null) {
+                            System.out.println("Assignment " + command[2] + " does not exist in " + command[1] + ".");
+                        } else {
+                            try {
+                                manager.setDueAt(classroom, assignment,
+                                        LocalDateTime.parse(command[3]).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+                                System.out.println("Assignment " + assignment.getId() + " in " + command[1] + " is due " + command[3] + ".");
+                            } catch (DateTimeException e) {
+                                System.out.println("Invalid due date. Use yyyy-MM-ddTHH:mm.");
+                            }
+                        }
+                    } else {
+                        System.out.println("Usage: set_due [class_name] [assignment_id] [yyyy-MM-ddTHH:mm]");
+                    }
+                    break;
+
+                case "list_missing":
+                case "list_late":
+                    if (command.length == 3) {
+                        Classroom classroom = manager.getClassroom(command[1]);
+                        Assignment assignment = classroom == null ? null : classroom.findAssignment(command[2]);
+                        if (classroom == null) {
+                            System.out.println("Classroom " + command[1] + " does not exist.");
+                        } else if (assignment == null) {
+                            System.out.println("Assignment " + command[2] + " does not exist in " + command[1] + ".");
+                        } else if (command[0].equals("list_missing")) {
+                            System.out.println("Students without a submission for assignment " + assignment.getId() + ":");
+                            for (Student student : classroom.getMissingSubmissions(assignment.getId())) {
+                                System.out.println("- " + student.getName() + " (ID: " + student.getId() + ")");
+                            }
+                        } else {
+                            System.out.println("Late submissions for assignment " + assignment.getId() + ":");
+                            for (Submission submission : classroom.getLateSubmissions(assignment.getId())) {
+                                System.out.println("- " + submission);
+                            }
+                        }
+                    } else {
+                        System.out.println("Usage: " + command[0] + " [class_name] [assignment_id]");
+                    }
+                    break;
+
+                case "list_submissions":
+                    if (command.length == 3) {
+                        Classroom classroom = manager.getClassroom(command[2]);
+                        if (classroom != null) {
+                            System.out.println("Submissions by Student " + command[1] + " in " + command[2] + ":");
+                            for (Submission submission : classroom.getSubmissions(command[1])) {
+                                System.out.println("- " + submission);
+                            }
+                        } else {
+                            System.out.println("Classroom " + command[2] + " does not exist.");
+                        }
+                    } else {
+                        System.out.println("Usage: list_submissions [student_id] [class_name]");
+                    }
+                    break;
+
                 case "list_classrooms":
                     manager.listClassrooms();
                     break;
 
+                case "run_batch":
+                    if (command.length == 2) {
+                        runBatch(manager, command[1]);
+                    } else {
+                        System.out.println("Usage: run_batch [command_file]");
+                    }
+                    break;
+
+                case "save_snapshot":
+                    if (command.length == 2) {
+                        try {
+                            new ClassroomSnapshot(Paths.get(command[1])).write(manager);
+                            System.out.println("Classrooms saved to " + command[1] + ".");
+                        } catch (IOException e) {
+                            System.out.println("Could not save to " + command[1] + ": " + e.getMessage());
+                        }
+                    } else {
+                        System.out.println("Usage: save_snapshot [file]");
+                    }
+                    break;
+
+                case "load_snapshot":
+                    if (command.length == 2) {
+                        try {
+                            int restored = new ClassroomSnapshot(Paths.get(command[1])).load(manager);
+                            System.out.println("Loaded " + restored + " classrooms from " + command[1] + ".");
+                        } catch (IOException e) {
+                            System.out.println("Could not load " + command[1] + ": " + e.getMessage());
+                        }
+                    } else {
+                        System.out.println("Usage: load_snapshot [file]");
+                    }
+                    break;
+
                 case "exit":
                     System.out.println("Exiting the Virtual Classroom Manager.");
                     scanner.close();
+                    shutdown(manager, snapshot, reminders);
                     return;
 
                 default:
@@ -217,6 +2523,36 @@ public class Main {
             }
         }
     }
+
+    // Stops reminders, checkpoints the classrooms to the data directory, if there is one, and
+    // closes the submission log
+    private static void shutdown(ClassroomManager manager, ClassroomSnapshot snapshot, ReminderScheduler reminders) {
+        if (reminders != null) {
+            manager.setReminderScheduler(null);
+            reminders.close();
+        }
+        if (snapshot != null) {
+            try {
+                manager.checkpoint(snapshot);
+            } catch (IOException | RuntimeException e) {
+                System.out.println("Could not save the classrooms: " + e.getMessage());
+            }
+        }
+        try {
+            manager.closeSubmissionLog();
+        } catch (IOException e) {
+            System.out.println("Could not close the submission log: " + e.getMessage());
+        }
+    }
+
+    private static void runBatch(ClassroomManager manager, String file) {
+        try {
+            BatchRunner runner = new BatchRunner(manager, Runtime.getRuntime().availableProcessors());
+            System.out.println(runner.run(Paths.get(file)));
+        } catch (IOException e) {
+            System.out.println("Could not read " + file + ": " + e.getMessage());
+        }
+    }
 }
 
 }
@@ -0,0 +1,107 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+// ClassroomSnapshotBenchmark.java
+// Round-trip check and load-time benchmark for ClassroomSnapshot. Compile together with
+// Assignment.java and run: java ClassroomSnapshotBenchmark [enrollments] [classrooms] [students]
+// Builds the rosters, saves them, loads them into a fresh manager several times and
+// checks that every classroom, assignment and enrollment came back unchanged.
+public class ClassroomSnapshotBenchmark {
+    private static final int LOAD_RUNS = 5;
+
+    public static void main(String[] args) throws IOException {
+        int enrollments = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int classroomCount = args.length > 1 ? Integer.parseInt(args[1]) : 5_000;
+        int studentCount = args.length > 2 ? Integer.parseInt(args[2]) : 100_000;
+        Path file = Files.createTempFile("classrooms", ".snapshot");
+        try {
+            ClassroomManager original = build(enrollments, classroomCount, studentCount);
+            long start = System.nanoTime();
+            new ClassroomSnapshot(file).write(original);
+            System.out.printf("Saved %,d enrollments in %,d classrooms: %,d bytes in %d ms%n", enrollments,
+                    classroomCount, Files.size(file), (System.nanoTime() - start) / 1_000_000);
+
+            for (int run = 1; run <= LOAD_RUNS; run++) {
+                ClassroomManager loaded = new ClassroomManager();
+                start = System.nanoTime();
+                int restored = new ClassroomSnapshot(file).load(loaded);
+                long elapsed = System.nanoTime() - start;
+                System.out.printf("Load %d: %,d classrooms in %d ms%n", run, restored, elapsed / 1_000_000);
+                if (run == 1) {
+                    verify(original, loaded);
+                }
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static ClassroomManager build(int enrollments, int classroomCount, int studentCount) {
+        Random random = new Random(42);
+        ClassroomManager manager = new ClassroomManager();
+        Student[] students = new Student[studentCount];
+        for (int i = 0; i < studentCount; i++) {
+            students[i] = new Student("s" + i, "Student s" + i);
+        }
+        Classroom[] classrooms = new Classroom[classroomCount];
+        for (int i = 0; i < classroomCount; i++) {
+            classrooms[i] = manager.getOrCreateClassroom("class-" + i, null);
+            // shared details exercise the string table's deduplication
+            classrooms[i].addAssignment("Essay " + (i % 10));
+            classrooms[i].addAssignment("Lab report").setDueAt(1_700_000_000_000L + i);
+        }
+        int added = 0;
+        while (added < enrollments) {
+            if (classrooms[random.nextInt(classroomCount)].enroll(students[random.nextInt(studentCount)])) {
+                added++;
+            }
+        }
+        // Leaves holes in the enrollment order that the snapshot must skip
+        for (int i = 0; i < classroomCount; i += 7) {
+            List<Student> roster = classrooms[i].getStudents();
+            if (!roster.isEmpty()) {
+                classrooms[i].unenroll(roster.get(0).getId());
+            }
+        }
+        return manager;
+    }
+
+    private static void verify(ClassroomManager original, ClassroomManager loaded) {
+        List<Classroom> expected = original.getClassrooms();
+        if (loaded.getClassrooms().size() != expected.size()) {
+            throw new IllegalStateException("Classroom count differs after load");
+        }
+        long enrollments = 0;
+        for (Classroom classroom : expected) {
+            Classroom copy = loaded.getClassroom(classroom.getName());
+            if (copy == null) {
+                throw new IllegalStateException("Missing classroom " + classroom.getName());
+            }
+            List<Assignment> assignments = classroom.getAssignments();
+            List<Assignment> copied = copy.getAssignments();
+            List<Student> roster = classroom.getStudents();
+            List<Student> copiedRoster = copy.getStudents();
+            if (assignments.size() != copied.size() || roster.size() != copiedRoster.size()) {
+                throw new IllegalStateException("Size differs in " + classroom.getName());
+            }
+            for (int i = 0; i < assignments.size(); i++) {
+                Assignment a = assignments.get(i);
+                Assignment b = copied.get(i);
+                if (a.getId() != b.getId() || !a.getDetails().equals(b.getDetails()) || a.getDueAt() != b.getDueAt()) {
+                    throw new IllegalStateException("Assignment " + a.getId() + " differs in " + classroom.getName());
+                }
+            }
+            for (int i = 0; i < roster.size(); i++) {
+                if (!roster.get(i).getId().equals(copiedRoster.get(i).getId())
+                        || !roster.get(i).getName().equals(copiedRoster.get(i).getName())) {
+                    throw new IllegalStateException("Roster order differs in " + classroom.getName());
+                }
+            }
+            enrollments += roster.size();
+        }
+        System.out.printf("Round trip verified: %,d classrooms, %,d enrollments%n", expected.size(), enrollments);
+    }
+}
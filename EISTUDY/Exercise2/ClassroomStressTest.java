@@ -0,0 +1,171 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+// ClassroomStressTest.java
+// Concurrency stress test for ClassroomManager / Classroom. Compile together with
+// Assignment.java and run: java ClassroomStressTest [seconds-per-run] [classrooms]
+// Workers pick a random classroom and enroll, submit, query or unenroll a student,
+// so the mix exercises the per-classroom locks rather than one global lock.
+public class ClassroomStressTest {
+    private static final int[] THREAD_COUNTS = {1, 4, 16, 64};
+    private static final int STUDENTS = 2048;
+
+    public static void main(String[] args) throws InterruptedException {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        int classroomCount = args.length > 1 ? Integer.parseInt(args[1]) : 256;
+        ClassroomManager manager = ClassroomManager.getInstance();
+        Student[] students = new Student[STUDENTS];
+        for (int i = 0; i < STUDENTS; i++) {
+            students[i] = new Student("s" + i, "Student s" + i);
+        }
+
+        System.out.println("Cores: " + Runtime.getRuntime().availableProcessors()
+                + ", classrooms: " + classroomCount + ", " + seconds + "s per run");
+        run(manager, setUp(manager, "warmup", 4), students, 4, 1000);  // let the JIT settle first
+        for (int threads : THREAD_COUNTS) {
+            Classroom[] classrooms = setUp(manager, "run" + threads, classroomCount);
+            long ops = run(manager, classrooms, students, threads, seconds * 1000L);
+            System.out.printf("%3d threads: %,12d ops/s%n", threads, ops / seconds);
+        }
+        verifyCreateRace(manager);
+        verifyEnrollmentCounts(manager, students);
+    }
+
+    private static Classroom[] setUp(ClassroomManager manager, String prefix, int count) {
+        Classroom[] classrooms = new Classroom[count];
+        for (int i = 0; i < count; i++) {
+            classrooms[i] = manager.getOrCreateClassroom(prefix + "-" + i, null);
+            classrooms[i].addAssignment("homework");
+        }
+        return classrooms;
+    }
+
+    private static long run(ClassroomManager manager, Classroom[] classrooms, Student[] students, int threads,
+                            long millis) throws InterruptedException {
+        LongAdder ops = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        long deadline = System.currentTimeMillis() + millis;
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long done = 0;
+                while ((done & 1023) != 0 || System.currentTimeMillis() < deadline) {
+                    Classroom classroom = classrooms[random.nextInt(classrooms.length)];
+                    Student student = students[random.nextInt(students.length)];
+                    int op = random.nextInt(10);
+                    if (op < 3) {
+                        classroom.enroll(student);
+                    } else if (op < 5) {
+                        classroom.submit(student.getId(), classroom.getAssignment(1), "answer",
+                                System.currentTimeMillis());
+                    } else if (op < 8) {
+                        classroom.isEnrolled(student.getId());
+                    } else if (op < 9) {
+                        classroom.getMissingSubmissions(1);
+                    } else {
+                        classroom.unenroll(student.getId());
+                    }
+                    done++;
+                }
+                ops.add(done);
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return ops.sum();
+    }
+
+    // Threads racing to create the same classroom must all end up with one instance
+    private static void verifyCreateRace(ClassroomManager manager) throws InterruptedException {
+        int threads = 16;
+        Classroom[] seen = new Classroom[threads];
+        boolean[][] created = new boolean[threads][1];
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int index = t;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                seen[index] = manager.getOrCreateClassroom("contended", created[index]);
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        int creators = 0;
+        for (int t = 0; t < threads; t++) {
+            if (seen[t] != seen[0]) {
+                throw new IllegalStateException("Racing creates returned different classrooms");
+            }
+            creators += created[t][0] ? 1 : 0;
+        }
+        if (creators != 1) {
+            throw new IllegalStateException(creators + " threads reported creating the same classroom");
+        }
+        System.out.println("Concurrent creates of one classroom yield a single instance.");
+    }
+
+    // Each thread owns a disjoint slice of students, so the final roster is known exactly
+    private static void verifyEnrollmentCounts(ClassroomManager manager, Student[] students)
+            throws InterruptedException {
+        Classroom classroom = manager.getOrCreateClassroom("roster-check", null);
+        Assignment assignment = classroom.addAssignment("final");
+        int threads = 16;
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int first = t * students.length / threads;
+            int last = (t + 1) * students.length / threads;
+            Thread worker = new Thread(() -> {
+                for (int round = 0; round < 50; round++) {
+                    for (int i = first; i < last; i++) {
+                        classroom.enroll(students[i]);
+                        if (i % 2 == 0 || round < 49) {
+                            classroom.unenroll(students[i].getId());
+                        }
+                    }
+                }
+                for (int i = first; i < last; i += 2) {
+                    classroom.enroll(students[i]);
+                }
+                for (int i = first; i < last; i += 4) {
+                    classroom.submit(students[i].getId(), assignment, "done", System.currentTimeMillis());
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        int expected = students.length;  // odd ones stay from the last round, even ones are re-enrolled
+        if (classroom.getStudentCount() != expected || classroom.getStudents().size() != expected) {
+            throw new IllegalStateException("Expected " + expected + " students, found " + classroom.getStudentCount());
+        }
+        int missing = classroom.getMissingSubmissions(assignment.getId()).size();
+        if (missing != expected - expected / 4) {
+            throw new IllegalStateException("Expected " + (expected - expected / 4) + " missing, found " + missing);
+        }
+        System.out.println("Roster and submissions consistent after concurrent updates ("
+                + expected + " students).");
+    }
+}
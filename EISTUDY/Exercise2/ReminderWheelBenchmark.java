@@ -0,0 +1,113 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// ReminderWheelBenchmark.java
+// Correctness and throughput check for TimerWheel and ReminderScheduler. Compile together
+// with Assignment.java and run: java ReminderWheelBenchmark [timers] [days]
+// Schedules millions of timers over the given horizon, cancels every tenth, then advances a
+// simulated clock minute by minute and checks that every other timer fired exactly once and
+// never early or more than one step late. A small scheduler run checks the reminder fan-out.
+public class ReminderWheelBenchmark {
+    private static final long TICK = 1000;
+    private static final long STEP = 60_000;
+    private static final long DAY = 24 * 3_600_000L;
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int days = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        checkWheel(count, days * DAY);
+        checkScheduler();
+    }
+
+    private static void checkWheel(int count, long horizon) {
+        Random random = new Random(42);
+        TimerWheel wheel = new TimerWheel(TICK, 0);
+        long[] now = new long[1];
+        int[] fired = new int[count];
+        long[] deadlines = new long[count];
+        TimerWheel.Timer[] timers = new TimerWheel.Timer[count];
+
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            deadlines[i] = (long) (random.nextDouble() * horizon);
+            timers[i] = wheel.schedule(deadlines[i], () -> {
+                if (now[0] < deadlines[index] || now[0] - deadlines[index] >= STEP + TICK) {
+                    throw new IllegalStateException("Timer " + index + " due at " + deadlines[index] + " fired at " + now[0]);
+                }
+                fired[index]++;
+            });
+        }
+        long scheduled = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        int cancelled = 0;
+        for (int i = 0; i < count; i += 10) {
+            wheel.cancel(timers[i]);
+            cancelled++;
+        }
+        long cancelling = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        List<Runnable> expired = new ArrayList<>();
+        for (now[0] = 0; now[0] <= horizon + STEP; now[0] += STEP) {
+            wheel.advanceTo(now[0], expired);
+            for (Runnable task : expired) {
+                task.run();
+            }
+            expired.clear();
+        }
+        long advancing = System.nanoTime() - start;
+
+        for (int i = 0; i < count; i++) {
+            int expected = i % 10 == 0 ? 0 : 1;
+            if (fired[i] != expected) {
+                throw new IllegalStateException("Timer " + i + " fired " + fired[i] + " times");
+            }
+        }
+        if (wheel.size() != 0) {
+            throw new IllegalStateException(wheel.size() + " timers left in the wheel");
+        }
+        System.out.printf("schedule: %,14.0f timers/s%n", count * 1e9 / scheduled);
+        System.out.printf("cancel:   %,14.0f timers/s%n", cancelled * 1e9 / cancelling);
+        System.out.printf("advance:  %,d ticks and %,d expiries in %d ms%n",
+                horizon / TICK, count - cancelled, advancing / 1_000_000);
+        System.out.printf("All %,d timers fired on time, %,d cancelled ones never did.%n", count - cancelled, cancelled);
+    }
+
+    // 1,000 students, 300 of whom submit early: both lead times remind the other 700 once
+    private static void checkScheduler() {
+        ClassroomManager manager = new ClassroomManager();
+        Classroom classroom = manager.getOrCreateClassroom("physics", null);
+        Assignment assignment = classroom.addAssignment("Lab report");
+        Assignment moved = classroom.addAssignment("Essay");
+        for (int i = 0; i < 1000; i++) {
+            classroom.enroll(new Student("s" + i, "Student s" + i));
+        }
+        for (int i = 0; i < 300; i++) {
+            classroom.submit("s" + i, assignment, "done", 0);
+        }
+        InMemoryReminderSink sink = new InMemoryReminderSink();
+        ReminderScheduler scheduler = new ReminderScheduler(sink, new long[] {DAY, 3_600_000L}, TICK, 0, 2);
+        manager.setReminderScheduler(scheduler);
+        manager.setDueAt(classroom, assignment, 3 * DAY);
+        manager.setDueAt(classroom, moved, 2 * DAY);
+        manager.setDueAt(classroom, moved, Assignment.NO_DUE_DATE);  // cancels its reminders
+        for (long time = 0; time <= 3 * DAY; time += STEP) {
+            scheduler.advanceTo(time);
+        }
+        scheduler.close();
+        List<Reminder> reminders = sink.drain();
+        if (reminders.size() != 1400 || scheduler.pendingCount() != 0) {
+            throw new IllegalStateException("Expected 1400 reminders, got " + reminders.size());
+        }
+        for (Reminder reminder : reminders) {
+            if (reminder.getAssignment() != assignment
+                    || Integer.parseInt(reminder.getStudent().getId().substring(1)) < 300) {
+                throw new IllegalStateException("Unexpected reminder: " + reminder);
+            }
+        }
+        System.out.println("Scheduler reminded each of the 700 missing students once per lead time.");
+    }
+}
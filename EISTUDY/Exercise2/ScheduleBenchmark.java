@@ -0,0 +1,230 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.CyclicBarrier;
+
+// ScheduleBenchmark.java
+// Throughput of the ScheduleManager hot paths. This is a plain main, not JMH: one JVM, no
+// forks, and results are kept alive through a sink rather than a Blackhole, so compare
+// numbers only between runs on the same machine and JVM. Each configuration gets warmup
+// and measurement iterations, and the mean +- 99.9% confidence half-width is reported and
+// written to a small JSON file. Compile together with Task.java and run:
+//   java ScheduleBenchmark [results.json] [sizes, e.g. 1000,100000,1000000]
+// The benchmarks are named after the methods they call: the quiet cores tryAddTask,
+// findConflicts, takeTask and completeTask, not the printing wrappers. Each iteration times
+// a block of operations and then undoes them untimed, so the schedule keeps its size and
+// shape across iterations.
+public class ScheduleBenchmark {
+    private static final int WARMUP_ITERATIONS = 2;
+    private static final int MEASUREMENT_ITERATIONS = 5;
+    private static final int OPS_PER_ITERATION = 20_000;
+    private static final String[] OPERATIONS = {"tryAddTask", "findConflicts", "takeTask", "completeTask"};
+    private static final String[] DISTRIBUTIONS = {"dense", "sparse"};
+
+    private static volatile long sink;  // every result feeds it, so the JIT cannot drop the calls
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String output = args.length > 0 ? args[0] : "schedule-benchmark.json";
+        int[] sizes = {1_000, 100_000, 1_000_000};
+        if (args.length > 1) {
+            String[] parts = args[1].split(",");
+            sizes = new int[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                sizes[i] = Integer.parseInt(parts[i].trim());
+            }
+        }
+        int[] threadCounts = {1, Math.max(2, Runtime.getRuntime().availableProcessors())};
+
+        List<String> results = new ArrayList<>();
+        for (int size : sizes) {
+            for (String distribution : DISTRIBUTIONS) {
+                Fixture fixture = new Fixture(size, distribution);
+                for (String operation : OPERATIONS) {
+                    for (int threads : threadCounts) {
+                        double[] scores = measure(fixture, operation, threads);
+                        double mean = mean(scores);
+                        double error = error(scores, mean);
+                        System.out.printf(Locale.ROOT, "%-18s %-7s %,10d tasks %3d threads: %,14.0f +- %,10.0f ops/s%n",
+                                operation, distribution, size, threads, mean, error);
+                        results.add(toJson(operation, distribution, size, threads, scores, mean, error));
+                    }
+                }
+            }
+        }
+        try (Writer writer = Files.newBufferedWriter(Paths.get(output), StandardCharsets.UTF_8)) {
+            writer.write("[\n" + String.join(",\n", results) + "\n]\n");
+        }
+        System.out.println("Results written to " + output);
+    }
+
+    // One schedule per (size, distribution), reused by every operation and thread count
+    private static class Fixture {
+        ScheduleManager schedule = new ScheduleManager();
+        Task[] tasks;
+
+        Fixture(int size, String distribution) {
+            Random random = new Random(42);
+            List<Task> generated = new ArrayList<>(size);
+            int start = 0;
+            for (int i = 0; i < size; i++) {
+                // dense: back to back with a one-minute gap; sparse: gaps of up to a day
+                start += "dense".equals(distribution) ? 31 : 31 + random.nextInt(TaskTime.MINUTES_PER_DAY);
+                generated.add(new Task("task-" + i, start, start + 30, i % 3 == 0 ? "High" : "Low"));
+            }
+            schedule.addTasks(generated);
+            tasks = generated.toArray(new Task[0]);
+        }
+    }
+
+    private static double[] measure(Fixture fixture, String operation, int threads) throws InterruptedException {
+        double[] scores = new double[MEASUREMENT_ITERATIONS];
+        Random random = new Random(7);
+        for (int iteration = 0; iteration < WARMUP_ITERATIONS + MEASUREMENT_ITERATIONS; iteration++) {
+            // Small schedules run several rounds so every iteration does the same amount of work
+            long ops = 0;
+            long nanos = 0;
+            while (ops < OPS_PER_ITERATION) {
+                Task[] targets = pickTargets(fixture.tasks, Math.min(OPS_PER_ITERATION, fixture.tasks.length), random);
+                nanos += runThreads(fixture.schedule, operation, targets, threads);
+                undo(fixture, operation, targets);
+                ops += targets.length;
+            }
+            if (iteration >= WARMUP_ITERATIONS) {
+                scores[iteration - WARMUP_ITERATIONS] = ops * 1e9 / nanos;
+            }
+        }
+        return scores;
+    }
+
+    // Distinct random tasks, so no operation in a round undoes another
+    private static Task[] pickTargets(Task[] tasks, int count, Random random) {
+        Task[] targets = new Task[count];
+        boolean[] picked = new boolean[tasks.length];
+        for (int i = 0; i < count; i++) {
+            int index = random.nextInt(tasks.length);
+            while (picked[index]) {
+                index = (index + 1) % tasks.length;
+            }
+            picked[index] = true;
+            targets[i] = tasks[index];
+        }
+        return targets;
+    }
+
+    private static long runThreads(ScheduleManager schedule, String operation, Task[] targets, int threads)
+            throws InterruptedException {
+        // The barrier action runs once all workers are lined up, and again once all are done
+        long[] marks = new long[2];
+        int[] trips = new int[1];
+        CyclicBarrier barrier = new CyclicBarrier(threads, () -> marks[trips[0]++] = System.nanoTime());
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int first = t * targets.length / threads;
+            int last = (t + 1) * targets.length / threads;
+            Thread worker = new Thread(() -> {
+                try {
+                    long results = 0;
+                    barrier.await();
+                    for (int i = first; i < last; i++) {
+                        results += apply(schedule, operation, targets[i]);
+                    }
+                    barrier.await();
+                    sink += results;  // racy, but only needs to be observed
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return marks[1] - marks[0];
+    }
+
+    // Returns something derived from each call's result, for the sink
+    private static int apply(ScheduleManager schedule, String operation, Task target) {
+        switch (operation) {
+            case "tryAddTask":
+                // fills the one free minute right after the target
+                return schedule.tryAddTask(new Task("probe", target.getEndMinute(), target.getEndMinute() + 1, "Low")).size();
+            case "findConflicts":
+                return schedule.findConflicts(new Task("probe", target.getStartMinute() + 15, target.getEndMinute() + 15, "Low")).size();
+            case "takeTask":
+                return schedule.takeTask(target.getDescription()) != null ? 1 : 0;
+            default:
+                return schedule.completeTask(target.getDescription()) ? 1 : 0;
+        }
+    }
+
+    private static void undo(Fixture fixture, String operation, Task[] targets) {
+        for (int i = 0; i < targets.length; i++) {
+            Task target = targets[i];
+            if ("tryAddTask".equals(operation)) {
+                fixture.schedule.takeTaskAt(target.getEndMinute());
+            } else if ("takeTask".equals(operation)) {
+                fixture.schedule.tryAddTask(target);
+            } else if ("completeTask".equals(operation)) {
+                Task fresh = new Task(target.getDescription(), target.getStartMinute(), target.getEndMinute(), target.getPriority());
+                fixture.schedule.takeTaskAt(target.getStartMinute());
+                fixture.schedule.tryAddTask(fresh);
+                replace(fixture, target, fresh);
+            }
+        }
+    }
+
+    private static void replace(Fixture fixture, Task original, Task fresh) {
+        int low = 0;
+        int high = fixture.tasks.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int start = fixture.tasks[middle].getStartMinute();
+            if (start < original.getStartMinute()) {
+                low = middle + 1;
+            } else if (start > original.getStartMinute()) {
+                high = middle - 1;
+            } else {
+                fixture.tasks[middle] = fresh;
+                return;
+            }
+        }
+    }
+
+    private static double mean(double[] scores) {
+        double sum = 0;
+        for (double score : scores) {
+            sum += score;
+        }
+        return sum / scores.length;
+    }
+
+    // Half-width of the 99.9% confidence interval (Student's t for 4 degrees of freedom)
+    private static double error(double[] scores, double mean) {
+        double squares = 0;
+        for (double score : scores) {
+            squares += (score - mean) * (score - mean);
+        }
+        return 8.610 * Math.sqrt(squares / (scores.length - 1)) / Math.sqrt(scores.length);
+    }
+
+    private static String toJson(String operation, String distribution, int size, int threads,
+                                 double[] scores, double mean, double error) {
+        StringBuilder raw = new StringBuilder();
+        for (double score : scores) {
+            raw.append(raw.length() == 0 ? "" : ", ").append(String.format(Locale.ROOT, "%.3f", score));
+        }
+        return String.format(Locale.ROOT,
+                "  {\"benchmark\": \"ScheduleBenchmark.%s\", \"threads\": %d, \"size\": %d, "
+                        + "\"distribution\": \"%s\", \"warmupIterations\": %d, \"measurementIterations\": %d, "
+                        + "\"unit\": \"ops/s\", \"mean\": %.3f, \"error\": %.3f, \"samples\": [%s]}",
+                operation, threads, size, distribution, WARMUP_ITERATIONS, MEASUREMENT_ITERATIONS,
+                mean, error, raw);
+    }
+}
@@ -0,0 +1,56 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+// SchedulePersistenceBenchmark.java
+// Measures recovery time of a ScheduleStore. Compile together with Task.java and run:
+// java SchedulePersistenceBenchmark [tasks] [journal-tail-ops]
+// Builds a schedule of the given size, checkpoints it, appends a journal tail of
+// completes and removes, then times a cold recover() from the same directory.
+public class SchedulePersistenceBenchmark {
+    public static void main(String[] args) throws IOException {
+        int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int tailOps = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        Path directory = Files.createTempDirectory("schedule-store");
+        try {
+            long start = System.nanoTime();
+            // Simulates a crash: this store is abandoned without the checkpoint close() takes
+            ScheduleStore crashed = new ScheduleStore(directory);
+            ScheduleManager schedule = crashed.recover();
+            List<Task> tasks = new ArrayList<>(taskCount);
+            for (int i = 0; i < taskCount; i++) {
+                tasks.add(new Task("task-" + i, i * 30, i * 30 + 25, i % 3 == 0 ? "High" : "Low"));
+            }
+            schedule.addTasks(tasks);
+            crashed.checkpoint();
+            for (int i = 0; i < tailOps; i++) {
+                if (i % 2 == 0) {
+                    schedule.completeTaskAt(i * 30);
+                } else {
+                    schedule.takeTaskAt(i * 30);
+                }
+            }
+            System.out.printf("Wrote %,d tasks + %,d journal ops in %d ms%n",
+                    taskCount, tailOps, (System.nanoTime() - start) / 1_000_000);
+            System.out.printf("Snapshot %,d bytes, journal %,d bytes%n",
+                    Files.size(directory.resolve("schedule.snapshot")), Files.size(directory.resolve("schedule.journal")));
+
+            start = System.nanoTime();
+            try (ScheduleStore store = new ScheduleStore(directory)) {
+                ScheduleManager recovered = store.recover();
+                long elapsed = System.nanoTime() - start;
+                System.out.printf("Recovered %,d tasks (%,d completed) in %d ms%n", recovered.size(),
+                        recovered.getTasks("High", true).size() + recovered.getTasks("Low", true).size(),
+                        elapsed / 1_000_000);
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+// ScheduleStressTest.java
+// Concurrency stress test for ScheduleRegistry / ScheduleManager. Compile together
+// with Task.java and run: java ScheduleStressTest [seconds-per-run] [schedules]
+// Each worker picks a random schedule and adds, queries or removes a task, so the
+// mix exercises per-schedule locking rather than a single global lock.
+public class ScheduleStressTest {
+    private static final int[] THREAD_COUNTS = {1, 4, 16, 64};
+
+    public static void main(String[] args) throws InterruptedException {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        int scheduleCount = args.length > 1 ? Integer.parseInt(args[1]) : 1024;
+
+        System.out.println("Cores: " + Runtime.getRuntime().availableProcessors()
+                + ", schedules: " + scheduleCount + ", " + seconds + "s per run");
+        run(new ScheduleRegistry(), new String[] {"warmup"}, 4, 1000);  // let the JIT settle first
+        for (int threads : THREAD_COUNTS) {
+            ScheduleRegistry registry = new ScheduleRegistry();
+            String[] owners = new String[scheduleCount];
+            for (int i = 0; i < scheduleCount; i++) {
+                owners[i] = "user-" + i;
+                registry.getSchedule(owners[i]);
+            }
+            long ops = run(registry, owners, threads, seconds * 1000L);
+            System.out.printf("%3d threads: %,12d ops/s%n", threads, ops / seconds);
+        }
+        verifyNoOverlaps();
+    }
+
+    private static long run(ScheduleRegistry registry, String[] owners, int threads, long millis)
+            throws InterruptedException {
+        LongAdder ops = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        long deadline = System.currentTimeMillis() + millis;
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long done = 0;
+                while ((done & 1023) != 0 || System.currentTimeMillis() < deadline) {
+                    ScheduleManager schedule = registry.getSchedule(owners[random.nextInt(owners.length)]);
+                    int startMinute = random.nextInt(7 * TaskTime.MINUTES_PER_DAY);
+                    String description = "task-" + startMinute;
+                    int op = random.nextInt(10);
+                    if (op < 5) {
+                        schedule.tryAddTask(new Task(description, startMinute, startMinute + 30, "Medium"));
+                    } else if (op < 8) {
+                        schedule.findConflicts(new Task(description, startMinute, startMinute + 30, "Medium"));
+                    } else {
+                        schedule.takeTask(description);
+                    }
+                    done++;
+                }
+                ops.add(done);
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return ops.sum();
+    }
+
+    // Many threads racing to book overlapping slots in one schedule must never double-book
+    private static void verifyNoOverlaps() throws InterruptedException {
+        ScheduleManager schedule = new ScheduleManager();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < 16; t++) {
+            Thread worker = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 20000; i++) {
+                    int startMinute = random.nextInt(TaskTime.MINUTES_PER_DAY);
+                    schedule.tryAddTask(new Task("t" + i, startMinute, startMinute + 1 + random.nextInt(90), "Low"));
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        int previousEnd = Integer.MIN_VALUE;
+        for (Task task : schedule.getTasks("Low", false)) {
+            if (task.getStartMinute() < previousEnd) {
+                throw new IllegalStateException("Overlapping tasks were both accepted: " + task);
+            }
+            previousEnd = task.getEndMinute();
+        }
+        System.out.println("No overlaps after concurrent inserts (" + schedule.size() + " tasks).");
+    }
+}
@@ -1,36 +1,94 @@
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
 
 // Task.java
 class Task {
     private String description;
-    private String startTime;
-    private String endTime;
+    private int startMinute;
+    private int endMinute;
     private String priority;
     private boolean isCompleted;
 
-    public Task(String description, String startTime, String endTime, String priority) {
+    // Times are minutes since the schedule epoch (see TaskTime); end is exclusive
+    public Task(String description, int startMinute, int endMinute, String priority) {
         this.description = description;
-        this.startTime = startTime;
-        this.endTime = endTime;
+        this.startMinute = startMinute;
+        this.endMinute = endMinute;
         this.priority = priority;
         this.isCompleted = false;
     }
 
     public String getStartTime() {
-        return startTime;
+        return TaskTime.format(startMinute);
     }
 
     public String getEndTime() {
-        return endTime;
+        return TaskTime.format(endMinute);
+    }
+
+    public int getStartMinute() {
+        return startMinute;
+    }
+
+    public int getEndMinute() {
+        return endMinute;
     }
 
     public String getPriority() {
         return priority;
     }
 
+    // High > Medium > Low; anything unrecognised ranks lowest
+    public int getPriorityRank() {
+        if ("high".equalsIgnoreCase(priority)) {
+            return 3;
+        } else if ("medium".equalsIgnoreCase(priority)) {
+            return 2;
+        } else if ("low".equalsIgnoreCase(priority)) {
+            return 1;
+        }
+        return 0;
+    }
+
     public String getDescription() {
         return description;
     }
@@ -39,44 +97,412 @@ class Task {
         return isCompleted;
     }
 
-    public void markAsCompleted() {
+    // Package-private: a completed task moves between TaskLookupIndex buckets, so completion
+    // goes through ScheduleManager.completeTask (or the journal/snapshot loaders) only
+    void markAsCompleted() {
         isCompleted = true;
     }
 
     @Override
     public String toString() {
-        return startTime + " - " + endTime + ": " + description + " [" + priority + "]" + (isCompleted ? " (Completed)" : "");
+        return getStartTime() + " - " + getEndTime() + ": " + description + " [" + priority + "]" + (isCompleted ? " (Completed)" : "");
+    }
+}
+
+// TaskTime.java
+// Compact time encoding: an int count of minutes since 1970-01-01 00:00.
+// A bare "HH:MM" lands on day 0, "HH:MM+1" on the day after, and
+// "YYYY-MM-DD HH:MM" on its calendar date, so all three order correctly
+// against each other with a plain int comparison.
+class TaskTime {
+    static final int MINUTES_PER_DAY = 24 * 60;
+
+    private TaskTime() {
+    }
+
+    public static int parse(String text) {
+        if (text == null) {
+            throw new IllegalArgumentException("Time is required");
+        }
+        String time = text.trim();
+        int day = 0;
+        int space = time.indexOf(' ');
+        if (space >= 0) {
+            try {
+                day = (int) LocalDate.parse(time.substring(0, space)).toEpochDay();
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid date: " + text);
+            }
+            time = time.substring(space + 1).trim();
+        } else if (time.endsWith("+1")) {
+            day = 1;
+            time = time.substring(0, time.length() - 2);
+        }
+        if (day < 0 || day > Integer.MAX_VALUE / MINUTES_PER_DAY - 1) {
+            throw new IllegalArgumentException("Date out of range: " + text);
+        }
+        return day * MINUTES_PER_DAY + parseMinuteOfDay(time, text);
+    }
+
+    // "H:MM" or "HH:MM", parsed digit by digit
+    private static int parseMinuteOfDay(String time, String original) {
+        int colon = time.indexOf(':');
+        if (colon < 1 || colon > 2 || time.length() != colon + 3) {
+            throw new IllegalArgumentException("Invalid time (expected HH:MM): " + original);
+        }
+        int hours = 0;
+        for (int i = 0; i < colon; i++) {
+            hours = hours * 10 + digit(time.charAt(i), original);
+        }
+        int minutes = digit(time.charAt(colon + 1), original) * 10 + digit(time.charAt(colon + 2), original);
+        if (hours > 23 || minutes > 59) {
+            throw new IllegalArgumentException("Invalid time (expected HH:MM): " + original);
+        }
+        return hours * 60 + minutes;
+    }
+
+    private static int digit(char c, String original) {
+        if (c < '0' || c > '9') {
+            throw new IllegalArgumentException("Invalid time (expected HH:MM): " + original);
+        }
+        return c - '0';
+    }
+
+    public static String format(int minute) {
+        StringBuilder text = new StringBuilder(16);
+        try {
+            appendTo(minute, text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);  // StringBuilder never throws
+        }
+        return text.toString();
+    }
+
+    // Same text as format(), appended without intermediate strings
+    public static void appendTo(int minute, Appendable out) throws IOException {
+        int day = minute / MINUTES_PER_DAY;
+        int minuteOfDay = minute % MINUTES_PER_DAY;
+        if (day > 1) {
+            appendDate(day, out);
+            out.append(' ');
+        }
+        out.append((char) ('0' + minuteOfDay / 600)).append((char) ('0' + minuteOfDay / 60 % 10)).append(':')
+                .append((char) ('0' + minuteOfDay % 60 / 10)).append((char) ('0' + minuteOfDay % 10));
+        if (day == 1) {
+            out.append("+1");
+        }
+    }
+
+    // yyyy-MM-dd from an epoch day, using the proleptic Gregorian civil-from-days conversion
+    private static void appendDate(int epochDay, Appendable out) throws IOException {
+        int shifted = epochDay + 719468;
+        int era = shifted / 146097;
+        int dayOfEra = shifted - era * 146097;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int monthIndex = (5 * dayOfYear + 2) / 153;
+        int dayOfMonth = dayOfYear - (153 * monthIndex + 2) / 5 + 1;
+        int month = monthIndex < 10 ? monthIndex + 3 : monthIndex - 9;
+        int year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        out.append((char) ('0' + year / 1000 % 10)).append((char) ('0' + year / 100 % 10))
+                .append((char) ('0' + year / 10 % 10)).append((char) ('0' + year % 10)).append('-')
+                .append((char) ('0' + month / 10)).append((char) ('0' + month % 10)).append('-')
+                .append((char) ('0' + dayOfMonth / 10)).append((char) ('0' + dayOfMonth % 10));
     }
 }
 
 // TaskFactory.java
 class TaskFactory {
+    // Parses and validates the times once; everything downstream works on ints
     public static Task createTask(String description, String startTime, String endTime, String priority) {
-        return new Task(description, startTime, endTime, priority);
+        int start = TaskTime.parse(startTime);
+        int end = TaskTime.parse(endTime);
+        if (end < start && end < TaskTime.MINUTES_PER_DAY && start < TaskTime.MINUTES_PER_DAY) {
+            end += TaskTime.MINUTES_PER_DAY;  // e.g. 23:00 - 01:00 runs past midnight
+        }
+        if (end <= start) {
+            throw new IllegalArgumentException("End time must be after start time.");
+        }
+        return new Task(description, start, end, priority);
     }
 }
 
 // TaskObserver.java
 interface TaskObserver {
     void notifyConflict(String message);
+
+    // Structured form; observers that only want text keep implementing notifyConflict
+    default void onConflict(ConflictEvent event) {
+        notifyConflict(event.getMessage());
+    }
+
+    // Async dispatch hands over bursts in one call; override to process a batch at once
+    default void onConflicts(List<ConflictEvent> events) {
+        for (ConflictEvent event : events) {
+            onConflict(event);
+        }
+    }
+}
+
+// ConflictEvent.java
+class ConflictEvent {
+    private Task task;
+    private List<Task> conflicts;
+    private long timestamp;
+
+    public ConflictEvent(Task task, List<Task> conflicts) {
+        this.task = task;
+        this.conflicts = conflicts;
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    // The task that was rejected
+    public Task getTask() {
+        return task;
+    }
+
+    // The scheduled tasks it overlaps with, in start order
+    public List<Task> getConflicts() {
+        return conflicts;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getMessage() {
+        StringBuilder message = new StringBuilder("Conflict detected: ").append(task.getDescription()).append(" overlaps with ");
+        for (int i = 0; i < conflicts.size(); i++) {
+            if (i > 0) {
+                message.append(", ");
+            }
+            message.append(conflicts.get(i).getDescription());
+        }
+        return message.append('.').toString();
+    }
+}
+
+// BackpressurePolicy.java
+// What AsyncConflictDispatcher does when its buffer is full
+enum BackpressurePolicy {
+    BLOCK,        // the publishing thread waits for room
+    DROP,         // the new event is discarded
+    DROP_OLDEST   // the oldest buffered event is discarded to make room
+}
+
+// AsyncConflictDispatcher.java
+// Delivers conflict events to observers on a background thread through a bounded
+// ring buffer, so a slow observer never stalls addTask. Whatever has piled up since
+// the last delivery (up to batchSize) is handed to each observer as one batch.
+class AsyncConflictDispatcher {
+    private List<TaskObserver> observers;
+    private ArrayBlockingQueue<ConflictEvent> buffer;
+    private int batchSize;
+    private BackpressurePolicy policy;
+    private AtomicLong dropped = new AtomicLong();
+    private volatile boolean running = true;
+    private Thread worker;
+
+    public AsyncConflictDispatcher(List<TaskObserver> observers, int capacity, int batchSize, BackpressurePolicy policy) {
+        this.observers = observers;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.policy = policy;
+        worker = new Thread(this::dispatchLoop, "conflict-dispatcher");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public void publish(ConflictEvent event) {
+        switch (policy) {
+            case BLOCK:
+                try {
+                    buffer.put(event);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    dropped.incrementAndGet();
+                }
+                break;
+            case DROP:
+                if (!buffer.offer(event)) {
+                    dropped.incrementAndGet();
+                }
+                break;
+            default:
+                while (!buffer.offer(event)) {
+                    if (buffer.poll() != null) {
+                        dropped.incrementAndGet();
+                    }
+                }
+                break;
+        }
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private void dispatchLoop() {
+        List<ConflictEvent> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                ConflictEvent first = buffer.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                running = false;
+                continue;
+            }
+            buffer.drainTo(batch, batchSize - 1);
+            List<ConflictEvent> events = Collections.unmodifiableList(batch);
+            for (TaskObserver observer : observers) {
+                try {
+                    observer.onConflicts(events);
+                } catch (RuntimeException e) {
+                    // one failing observer must not stop delivery to the others
+                    System.out.println("Observer failed: " + e);
+                }
+            }
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+
+    // Stops the worker once everything already buffered has been delivered
+    public void shutdown() {
+        running = false;
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
+
+// TaskIntervalIndex.java
+// Interval queries over the scheduled tasks, keyed on start minute.
+// Scheduled tasks never overlap each other, so ordering them by start also orders
+// them by end: the only candidates for an overlap with [start, end) are the task
+// starting at or before start and the tasks starting inside the range.
+class TaskIntervalIndex {
+    private TreeMap<Integer, Task> byStart;
+
+    public TaskIntervalIndex(TreeMap<Integer, Task> byStart) {
+        this.byStart = byStart;
+    }
+
+    // O(log n) yes/no check
+    public boolean overlapsAny(int start, int end) {
+        Map.Entry<Integer, Task> before = byStart.floorEntry(start);
+        if (before != null && before.getValue().getEndMinute() > start) {
+            return true;
+        }
+        Integer next = byStart.higherKey(start);
+        return next != null && next < end;
+    }
+
+    // All tasks overlapping [start, end), in start order: O(log n + k)
+    public List<Task> findOverlapping(int start, int end) {
+        List<Task> overlapping = new ArrayList<>();
+        Map.Entry<Integer, Task> before = byStart.floorEntry(start);
+        if (before != null && before.getValue().getEndMinute() > start) {
+            overlapping.add(before.getValue());
+        }
+        if (end > start) {
+            overlapping.addAll(byStart.subMap(start, false, end, false).values());
+        }
+        return overlapping;
+    }
+}
+
+// TaskLookupIndex.java
+// Secondary indexes kept in step with taskMap on every mutation: description -> tasks
+// and (priority, completion status) -> tasks, each bucket sorted by start minute.
+class TaskLookupIndex {
+    private Map<String, TreeMap<Integer, Task>> byDescription = new HashMap<>();
+    private Map<String, TreeMap<Integer, Task>> pendingByPriority = new HashMap<>();
+    private Map<String, TreeMap<Integer, Task>> completedByPriority = new HashMap<>();
+
+    public void add(Task task) {
+        put(byDescription, task.getDescription(), task);
+        put(task.isCompleted() ? completedByPriority : pendingByPriority, priorityKey(task.getPriority()), task);
+    }
+
+    public void remove(Task task) {
+        take(byDescription, task.getDescription(), task);
+        take(task.isCompleted() ? completedByPriority : pendingByPriority, priorityKey(task.getPriority()), task);
+    }
+
+    // Call before flipping the task's flag so the old bucket is still known
+    public void markCompleted(Task task) {
+        if (!task.isCompleted()) {
+            take(pendingByPriority, priorityKey(task.getPriority()), task);
+            put(completedByPriority, priorityKey(task.getPriority()), task);
+        }
+    }
+
+    // Earliest scheduled task with this description, or null
+    public Task findByDescription(String description) {
+        TreeMap<Integer, Task> tasks = byDescription.get(description);
+        return tasks == null ? null : tasks.firstEntry().getValue();
+    }
+
+    // Tasks of one priority and completion status, in start order
+    public Collection<Task> getTasks(String priority, boolean completed) {
+        TreeMap<Integer, Task> tasks = (completed ? completedByPriority : pendingByPriority).get(priorityKey(priority));
+        return tasks == null ? Collections.<Task>emptyList() : Collections.unmodifiableCollection(tasks.values());
+    }
+
+    private static String priorityKey(String priority) {
+        return priority == null ? "" : priority.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static void put(Map<String, TreeMap<Integer, Task>> index, String key, Task task) {
+        index.computeIfAbsent(key, k -> new TreeMap<>()).put(task.getStartMinute(), task);
+    }
+
+    private static void take(Map<String, TreeMap<Integer, Task>> index, String key, Task task) {
+        TreeMap<Integer, Task> tasks = index.get(key);
+        if (tasks != null) {
+            tasks.remove(task.getStartMinute());
+            if (tasks.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
 }
 
 // ScheduleManager.java
+// Thread-safe: each schedule guards its own maps with a read/write lock, so
+// schedules of different users never contend. Observers are notified and
+// console output is printed outside the lock.
 class ScheduleManager {
-    private static ScheduleManager instance;
-    private TreeMap<String, Task> taskMap;  // TreeMap keeps tasks sorted by start time
+    private TreeMap<Integer, Task> taskMap;  // TreeMap keeps tasks sorted by start minute
+    private TaskIntervalIndex intervalIndex;
+    private TaskLookupIndex lookupIndex;
+    private FreeSlotIndex freeSlots;
     private List<TaskObserver> observers;
+    private ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Object checkpointLock = new Object();  // one checkpoint at a time; they share the temp file
+    private volatile ScheduleJournal journal;  // null keeps the schedule in memory only
+    private volatile AsyncConflictDispatcher dispatcher;  // null notifies on the caller's thread
 
-    private ScheduleManager() {
+    ScheduleManager() {
         taskMap = new TreeMap<>();
-        observers = new ArrayList<>();
+        intervalIndex = new TaskIntervalIndex(taskMap);
+        lookupIndex = new TaskLookupIndex();
+        freeSlots = new FreeSlotIndex();
+        observers = new CopyOnWriteArrayList<>();
+    }
+
+    // Lazy, thread-safe initialization via the holder class idiom
+    private static class Holder {
+        static final ScheduleManager INSTANCE = new ScheduleManager();
     }
 
     public static ScheduleManager getInstance() {
-        if (instance == null) {
-            instance = new ScheduleManager();
-        }
-        return instance;
+        return Holder.INSTANCE;
     }
 
     public void addTaskObserver(TaskObserver observer) {
@@ -87,69 +513,1423 @@ class ScheduleManager {
         observers.remove(observer);
     }
 
-    private void notifyObservers(String message) {
+    private void notifyObservers(ConflictEvent event) {
+        AsyncConflictDispatcher async = dispatcher;
+        if (async != null) {
+            async.publish(event);
+            return;
+        }
         for (TaskObserver observer : observers) {
-            observer.notifyConflict(message);
+            observer.onConflict(event);
+        }
+    }
+
+    // Switches observer notification to a background thread with a bounded buffer
+    public synchronized void enableAsyncDispatch(int capacity, int batchSize, BackpressurePolicy policy) {
+        disableAsyncDispatch();
+        dispatcher = new AsyncConflictDispatcher(observers, capacity, batchSize, policy);
+    }
+
+    // Back to synchronous notification, after delivering what is still buffered
+    public synchronized void disableAsyncDispatch() {
+        AsyncConflictDispatcher async = dispatcher;
+        if (async != null) {
+            dispatcher = null;
+            async.shutdown();
         }
     }
 
     // Add a task and check for conflicts
     public void addTask(Task task) {
-        if (isConflict(task)) {
-            notifyObservers("Conflict detected: " + task.getDescription() + " overlaps with an existing task.");
+        List<Task> conflicts = tryAddTask(task);
+        if (!conflicts.isEmpty()) {
+            notifyObservers(new ConflictEvent(task, conflicts));
         } else {
-            taskMap.put(task.getStartTime(), task);
             System.out.println("Task added successfully: " + task.getDescription());
         }
     }
 
+    // Atomic check-then-insert; returns the conflicting tasks, empty if the task was added
+    public List<Task> tryAddTask(Task task) {
+        long sequence = 0;
+        lock.writeLock().lock();
+        try {
+            if (isConflict(task)) {
+                return intervalIndex.findOverlapping(task.getStartMinute(), task.getEndMinute());
+            }
+            sequence = insertLocked(task);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitDurable(sequence);
+        return Collections.emptyList();
+    }
+
+    // Bulk insert: sorts the batch once, then a single sweep over the batch and the
+    // existing tasks finds every conflict. Conflicting tasks are rejected, not notified.
+    public ImportResult addTasks(Collection<Task> tasks) {
+        Task[] sorted = tasks.toArray(new Task[0]);
+        Arrays.sort(sorted, Comparator.comparingInt(Task::getStartMinute));
+        ImportResult result = new ImportResult();
+        long sequence = 0;
+        lock.writeLock().lock();
+        try {
+            Integer from = sorted.length == 0 ? null : taskMap.floorKey(sorted[0].getStartMinute());
+            Iterator<Task> existing = (from == null ? taskMap : taskMap.tailMap(from, true)).values().iterator();
+            Task head = existing.hasNext() ? existing.next() : null;
+            Task lastAccepted = null;
+            List<Task> accepted = new ArrayList<>();
+            for (Task task : sorted) {
+                // Existing tasks are disjoint, so their ends ascend with their starts
+                while (head != null && head.getEndMinute() <= task.getStartMinute()) {
+                    head = existing.hasNext() ? existing.next() : null;
+                }
+                if (head != null && head.getStartMinute() < task.getEndMinute()) {
+                    Collection<Task> clashes = taskMap.subMap(head.getStartMinute(), true, task.getEndMinute(), false).values();
+                    result.addRejected(task, "overlaps with " + describe(clashes));
+                } else if (lastAccepted != null && lastAccepted.getEndMinute() > task.getStartMinute()) {
+                    result.addRejected(task, "overlaps with " + lastAccepted.getDescription() + " in the same batch");
+                } else {
+                    accepted.add(task);
+                    lastAccepted = task;
+                }
+            }
+            for (Task task : accepted) {
+                sequence = insertLocked(task);
+                result.addAccepted(task);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitDurable(sequence);
+        return result;
+    }
+
+    // Caller holds the write lock and has ruled out conflicts. The journal append comes
+    // first: if the journal is closed or has failed, the maps are left untouched.
+    private long insertLocked(Task task) {
+        long sequence = journal == null ? 0 : journal.appendAdd(task);
+        taskMap.put(task.getStartMinute(), task);
+        lookupIndex.add(task);
+        freeSlots.occupy(task.getStartMinute(), task.getEndMinute());
+        return sequence;
+    }
+
+    // Next free slots of at least durationMinutes inside [fromMinute, toMinute), earliest first
+    public List<TimeSlot> findFreeSlots(int durationMinutes, int fromMinute, int toMinute, int count) {
+        lock.readLock().lock();
+        try {
+            return freeSlots.find(durationMinutes, fromMinute, toMinute, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Places the task in the earliest gap at or after its requested start that ends by
+    // latestEndMinute. If there is none and bumping is allowed, a requested interval held
+    // only by lower-priority tasks is taken over and those tasks move to their own next
+    // free slot after their original start; if any of them has none, nothing changes and
+    // the task is reported as not placed.
+    public PlacementResult autoSchedule(Task task, int latestEndMinute, boolean bumpLowerPriority) {
+        int duration = task.getEndMinute() - task.getStartMinute();
+        PlacementResult result = new PlacementResult();
+        long sequence = 0;
+        lock.writeLock().lock();
+        try {
+            List<TimeSlot> slot = freeSlots.find(duration, task.getStartMinute(), latestEndMinute, 1);
+            if (!slot.isEmpty()) {
+                Task placed = moveTo(task, slot.get(0).getStartMinute());
+                sequence = insertLocked(placed);
+                result.setPlaced(placed);
+            } else if (bumpLowerPriority && task.getEndMinute() <= latestEndMinute) {
+                List<Task> holders = intervalIndex.findOverlapping(task.getStartMinute(), task.getEndMinute());
+                for (Task holder : holders) {
+                    if (holder.getPriorityRank() >= task.getPriorityRank()) {
+                        return result;
+                    }
+                }
+                for (Task holder : holders) {
+                    sequence = removeLocked(holder);
+                }
+                sequence = insertLocked(task);
+                List<Task> movedHolders = new ArrayList<>();
+                for (Task holder : holders) {
+                    int holderDuration = holder.getEndMinute() - holder.getStartMinute();
+                    List<TimeSlot> moved = freeSlots.find(holderDuration, holder.getStartMinute(), Integer.MAX_VALUE, 1);
+                    if (moved.isEmpty()) {
+                        break;
+                    }
+                    Task movedHolder = moveTo(holder, moved.get(0).getStartMinute());
+                    sequence = insertLocked(movedHolder);
+                    movedHolders.add(movedHolder);
+                }
+                if (movedHolders.size() < holders.size()) {
+                    // A holder has nowhere to go: bumping is all or nothing, so put everything back
+                    for (Task movedHolder : movedHolders) {
+                        sequence = removeLocked(movedHolder);
+                    }
+                    sequence = removeLocked(task);
+                    for (Task holder : holders) {
+                        sequence = insertLocked(holder);
+                    }
+                } else {
+                    result.setPlaced(task);
+                    for (int i = 0; i < holders.size(); i++) {
+                        result.addBumped(holders.get(i), movedHolders.get(i));
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitDurable(sequence);
+        return result;
+    }
+
+    private static Task moveTo(Task task, int startMinute) {
+        if (startMinute == task.getStartMinute()) {
+            return task;
+        }
+        Task moved = new Task(task.getDescription(), startMinute,
+                startMinute + task.getEndMinute() - task.getStartMinute(), task.getPriority());
+        if (task.isCompleted()) {
+            moved.markAsCompleted();
+        }
+        return moved;
+    }
+
+    private static String describe(Collection<Task> tasks) {
+        StringBuilder names = new StringBuilder();
+        for (Task task : tasks) {
+            if (names.length() > 0) {
+                names.append(", ");
+            }
+            names.append(task.getDescription());
+        }
+        return names.toString();
+    }
+
     // Remove task by description
     public void removeTask(String description) {
-        boolean taskFound = false;
-        for (Task task : taskMap.values()) {
-            if (task.getDescription().equals(description)) {
-                taskMap.remove(task.getStartTime());
-                System.out.println("Task removed successfully: " + description);
-                taskFound = true;
-                break;
+        if (takeTask(description) != null) {
+            System.out.println("Task removed successfully: " + description);
+        } else {
+            System.out.println("Error: Task not found.");
+        }
+    }
+
+    // Removes and returns the earliest task with this description, or null
+    public Task takeTask(String description) {
+        long sequence = 0;
+        Task task;
+        lock.writeLock().lock();
+        try {
+            task = lookupIndex.findByDescription(description);
+            if (task != null) {
+                sequence = removeLocked(task);
             }
+        } finally {
+            lock.writeLock().unlock();
         }
-        if (!taskFound) {
-            System.out.println("Error: Task not found.");
+        awaitDurable(sequence);
+        return task;
+    }
+
+    // Removes the task starting at this minute, or returns null
+    Task takeTaskAt(int startMinute) {
+        long sequence = 0;
+        Task task;
+        lock.writeLock().lock();
+        try {
+            task = taskMap.get(startMinute);
+            if (task != null) {
+                sequence = removeLocked(task);
+            }
+        } finally {
+            lock.writeLock().unlock();
         }
+        awaitDurable(sequence);
+        return task;
     }
 
-    // View all tasks
+    private long removeLocked(Task task) {
+        long sequence = journal == null ? 0 : journal.appendRemove(task.getStartMinute());
+        taskMap.remove(task.getStartMinute());
+        lookupIndex.remove(task);
+        freeSlots.release(task.getStartMinute(), task.getEndMinute());
+        return sequence;
+    }
+
+    // View all tasks, rendered a page at a time into one reused buffer
     public void viewTasks() {
-        if (taskMap.isEmpty()) {
+        viewTasks(0, Integer.MAX_VALUE);
+    }
+
+    // View the tasks starting in [fromMinute, toMinute); fromMinute must not be negative
+    public void viewTasks(int fromMinute, int toMinute) {
+        checkCursor(fromMinute);
+        StringBuilder page = new StringBuilder(64 * 1024);
+        int cursor = fromMinute;
+        boolean any = false;
+        try {
+            while (cursor != -1) {
+                page.setLength(0);
+                cursor = renderTasks(page, cursor, toMinute, 1024);
+                any |= page.length() > 0;
+                System.out.append(page);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);  // StringBuilder never throws
+        }
+        if (!any) {
             System.out.println("No tasks scheduled for the day.");
-        } else {
-            for (Task task : taskMap.values()) {
-                System.out.println(task);
+        }
+        System.out.flush();
+    }
+
+    // Renders up to limit tasks starting in [fromMinute, toMinute) into out, one per line.
+    // Returns the fromMinute for the next page, or -1 when the range is exhausted, so a
+    // negative fromMinute is rejected rather than read as an empty range. Only
+    // the page and each task's completion flag are copied under the read lock; rendering
+    // happens outside it.
+    public int renderTasks(Appendable out, int fromMinute, int toMinute, int limit) throws IOException {
+        checkCursor(fromMinute);
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive: " + limit);
+        }
+        List<Task> page = new ArrayList<>(Math.min(limit, 1024));
+        boolean[] completed = new boolean[Math.min(limit, 1024)];
+        int next = -1;
+        lock.readLock().lock();
+        try {
+            if (fromMinute < toMinute) {
+                for (Task task : taskMap.subMap(fromMinute, true, toMinute, false).values()) {
+                    if (page.size() == limit) {
+                        next = task.getStartMinute();
+                        break;
+                    }
+                    if (page.size() == completed.length) {
+                        completed = Arrays.copyOf(completed, Math.min(limit, completed.length * 2));
+                    }
+                    completed[page.size()] = task.isCompleted();
+                    page.add(task);
+                }
             }
+        } finally {
+            lock.readLock().unlock();
+        }
+        for (int i = 0; i < page.size(); i++) {
+            TaskRenderer.appendTask(page.get(i), completed[i], out);
         }
+        return next;
+    }
+
+    // -1 is the end-of-range cursor renderTasks returns, never a valid place to start
+    private static void checkCursor(int fromMinute) {
+        if (fromMinute < 0) {
+            throw new IllegalArgumentException("fromMinute must not be negative: " + fromMinute);
+        }
+    }
+
+    // Streams every task starting in [fromMinute, toMinute) to a channel, e.g. a file;
+    // fromMinute must not be negative
+    public void exportTasks(WritableByteChannel channel, int fromMinute, int toMinute) throws IOException {
+        checkCursor(fromMinute);
+        ChannelAppendable out = new ChannelAppendable(channel, 64 * 1024);
+        int cursor = fromMinute;
+        while (cursor != -1) {
+            cursor = renderTasks(out, cursor, toMinute, 4096);
+        }
+        out.close();
     }
 
     // Mark a task as completed
     public void markTaskCompleted(String description) {
-        for (Task task : taskMap.values()) {
-            if (task.getDescription().equals(description)) {
+        if (completeTask(description)) {
+            System.out.println("Task marked as completed: " + description);
+        } else {
+            System.out.println("Error: Task not found.");
+        }
+    }
+
+    // Marks the earliest task with this description as completed; false if there is none
+    public boolean completeTask(String description) {
+        long sequence = 0;
+        Task task;
+        lock.writeLock().lock();
+        try {
+            task = lookupIndex.findByDescription(description);
+            if (task != null) {
+                sequence = completeLocked(task);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitDurable(sequence);
+        return task != null;
+    }
+
+    // Marks the task starting at this minute as completed; false if there is none
+    boolean completeTaskAt(int startMinute) {
+        long sequence = 0;
+        Task task;
+        lock.writeLock().lock();
+        try {
+            task = taskMap.get(startMinute);
+            if (task != null) {
+                sequence = completeLocked(task);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitDurable(sequence);
+        return task != null;
+    }
+
+    private long completeLocked(Task task) {
+        if (task.isCompleted()) {
+            return 0;
+        }
+        long sequence = journal == null ? 0 : journal.appendComplete(task.getStartMinute());
+        lookupIndex.markCompleted(task);
+        task.markAsCompleted();
+        return sequence;
+    }
+
+    // Called after recovery; from then on every mutation is journaled
+    void attachJournal(ScheduleJournal journal) {
+        lock.writeLock().lock();
+        try {
+            this.journal = journal;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Writers wait for their own records outside the lock so commits can be grouped
+    private void awaitDurable(long sequence) {
+        if (sequence > 0) {
+            journal.awaitDurable(sequence);
+        }
+    }
+
+    // Only the task array, their completion flags and the journal position are copied under
+    // the read lock; the snapshot is written and the journal compacted with writers running.
+    // checkpointLock keeps a second checkpoint from writing the same snapshot file meanwhile
+    void checkpoint(ScheduleSnapshot snapshot, ScheduleJournal journal) throws IOException {
+        synchronized (checkpointLock) {
+            Task[] tasks;
+            boolean[] completed;
+            long generation;
+            long offset;
+            lock.readLock().lock();
+            try {
+                tasks = taskMap.values().toArray(new Task[0]);
+                completed = new boolean[tasks.length];
+                for (int i = 0; i < tasks.length; i++) {
+                    completed[i] = tasks[i].isCompleted();
+                }
+                generation = journal.getGeneration();
+                offset = journal.position();
+            } finally {
+                lock.readLock().unlock();
+            }
+            snapshot.write(tasks, completed, generation, offset);
+            journal.compact(generation, offset);
+        }
+    }
+
+    // e.g. getTasks("High", false) for all High-priority incomplete tasks, in start order
+    public List<Task> getTasks(String priority, boolean completed) {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(lookupIndex.getTasks(priority, completed));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return taskMap.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Check if the new task conflicts with existing tasks; caller holds the lock
+    private boolean isConflict(Task newTask) {
+        return intervalIndex.overlapsAny(newTask.getStartMinute(), newTask.getEndMinute());
+    }
+
+    // All existing tasks the new task would overlap with
+    public List<Task> findConflicts(Task newTask) {
+        lock.readLock().lock();
+        try {
+            return intervalIndex.findOverlapping(newTask.getStartMinute(), newTask.getEndMinute());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
+
+// TimeSlot.java
+class TimeSlot {
+    private int startMinute;
+    private int endMinute;
+
+    public TimeSlot(int startMinute, int endMinute) {
+        this.startMinute = startMinute;
+        this.endMinute = endMinute;
+    }
+
+    public int getStartMinute() {
+        return startMinute;
+    }
+
+    public int getEndMinute() {
+        return endMinute;
+    }
+
+    @Override
+    public String toString() {
+        return TaskTime.format(startMinute) + " - " + TaskTime.format(endMinute);
+    }
+}
+
+// FreeSlotIndex.java
+// The complement of the scheduled tasks: maximal free gaps keyed by start minute over
+// [0, Integer.MAX_VALUE), plus a treap of the same gaps in start order in which every node
+// also records the longest gap in its subtree. A search for the earliest gap of at least d
+// minutes after some minute skips every subtree whose longest gap is shorter than d, so
+// each slot found costs O(log n) whatever d is.
+class FreeSlotIndex {
+    private TreeMap<Integer, Integer> gaps = new TreeMap<>();
+    private GapNode root;
+    private int seed = 0x2545F491;  // xorshift state for treap priorities
+
+    // A gap in the treap: ordered by start, heap-ordered by priority
+    private static final class GapNode {
+        final int start;
+        final int length;
+        final int priority;
+        int longest;  // longest gap in this subtree
+        GapNode left;
+        GapNode right;
+
+        GapNode(int start, int length, int priority) {
+            this.start = start;
+            this.length = length;
+            this.priority = priority;
+            this.longest = length;
+        }
+
+        void update() {
+            longest = Math.max(length, Math.max(left == null ? 0 : left.longest, right == null ? 0 : right.longest));
+        }
+    }
+
+    public FreeSlotIndex() {
+        addGap(0, Integer.MAX_VALUE);
+    }
+
+    // The task must lie inside one free gap, i.e. it was checked for conflicts
+    public void occupy(int startMinute, int endMinute) {
+        Map.Entry<Integer, Integer> gap = gaps.floorEntry(startMinute);
+        if (gap == null || gap.getValue() < endMinute || startMinute < 0) {
+            return;
+        }
+        removeGap(gap.getKey());
+        if (gap.getKey() < startMinute) {
+            addGap(gap.getKey(), startMinute);
+        }
+        if (endMinute < gap.getValue()) {
+            addGap(endMinute, gap.getValue());
+        }
+    }
+
+    public void release(int startMinute, int endMinute) {
+        if (startMinute < 0) {
+            return;
+        }
+        int start = startMinute;
+        int end = endMinute;
+        Map.Entry<Integer, Integer> before = gaps.lowerEntry(startMinute);
+        if (before != null && before.getValue() == startMinute) {
+            start = before.getKey();
+            removeGap(before.getKey());
+        }
+        Integer after = gaps.get(endMinute);
+        if (after != null) {
+            end = after;
+            removeGap(endMinute);
+        }
+        addGap(start, end);
+    }
+
+    // Up to count free slots of at least duration minutes inside [from, to), earliest first.
+    // Each slot is the whole free stretch, clipped to the window.
+    public List<TimeSlot> find(int duration, int from, int to, int count) {
+        List<TimeSlot> slots = new ArrayList<>();
+        if (duration <= 0 || count <= 0 || (long) from + duration > to) {
+            return slots;
+        }
+        int latestStart = to - duration;
+        Map.Entry<Integer, Integer> containing = gaps.floorEntry(from);
+        if (containing != null && containing.getValue() - Math.max(from, 0) >= duration) {
+            slots.add(new TimeSlot(Math.max(from, 0), Math.min(containing.getValue(), to)));
+        }
+        GapNode next = firstFitting(root, from, duration);
+        while (slots.size() < count && next != null && next.start <= latestStart) {
+            slots.add(new TimeSlot(next.start, Math.min(next.start + next.length, to)));
+            next = firstFitting(root, next.start, duration);
+        }
+        return slots;
+    }
+
+    // Earliest gap starting after the given minute that holds duration. Only the path
+    // along "after" and one descent into a subtree known to hold an answer are visited.
+    private static GapNode firstFitting(GapNode node, int after, int duration) {
+        if (node == null || node.longest < duration) {
+            return null;
+        }
+        if (node.start > after) {
+            GapNode left = firstFitting(node.left, after, duration);
+            if (left != null) {
+                return left;
+            }
+            if (node.length >= duration) {
+                return node;
+            }
+        }
+        return firstFitting(node.right, after, duration);
+    }
+
+    private void addGap(int start, int end) {
+        gaps.put(start, end);
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        GapNode[] parts = split(root, start);
+        root = merge(merge(parts[0], new GapNode(start, end - start, seed)), parts[1]);
+    }
+
+    private void removeGap(int start) {
+        gaps.remove(start);
+        GapNode[] parts = split(root, start);
+        GapNode[] rest = split(parts[1], start + 1);
+        root = merge(parts[0], rest[1]);
+    }
+
+    // {gaps starting before key, gaps starting at or after it}
+    private static GapNode[] split(GapNode node, int key) {
+        if (node == null) {
+            return new GapNode[2];
+        }
+        GapNode[] parts;
+        if (node.start < key) {
+            parts = split(node.right, key);
+            node.right = parts[0];
+            parts[0] = node;
+        } else {
+            parts = split(node.left, key);
+            node.left = parts[1];
+            parts[1] = node;
+        }
+        node.update();
+        return parts;
+    }
+
+    // Every start in a must be below every start in b
+    private static GapNode merge(GapNode a, GapNode b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            a.update();
+            return a;
+        }
+        b.left = merge(a, b.left);
+        b.update();
+        return b;
+    }
+}
+
+// PlacementResult.java
+// Outcome of ScheduleManager.autoSchedule: where the task went, and any lower-priority
+// tasks that were moved out of its way (original -> new position)
+class PlacementResult {
+    private Task placed;
+    private Map<Task, Task> bumped = new LinkedHashMap<>();
+
+    public void setPlaced(Task placed) {
+        this.placed = placed;
+    }
+
+    public void addBumped(Task original, Task moved) {
+        bumped.put(original, moved);
+    }
+
+    // The task as scheduled, or null if it could not be placed
+    public Task getPlaced() {
+        return placed;
+    }
+
+    public Map<Task, Task> getBumped() {
+        return bumped;
+    }
+
+    public boolean isPlaced() {
+        return placed != null;
+    }
+}
+
+// TaskRenderer.java
+// Writes tasks in Task.toString() form straight into an Appendable, digit by digit,
+// so rendering a view allocates no per-task strings
+class TaskRenderer {
+    private TaskRenderer() {
+    }
+
+    public static void appendTask(Task task, Appendable out) throws IOException {
+        appendTask(task, task.isCompleted(), out);
+    }
+
+    // For callers that snapshotted the completion flag under the schedule's lock
+    public static void appendTask(Task task, boolean completed, Appendable out) throws IOException {
+        TaskTime.appendTo(task.getStartMinute(), out);
+        out.append(" - ");
+        TaskTime.appendTo(task.getEndMinute(), out);
+        out.append(": ").append(task.getDescription()).append(" [").append(task.getPriority()).append(']');
+        if (completed) {
+            out.append(" (Completed)");
+        }
+        out.append('\n');
+    }
+}
+
+// ChannelAppendable.java
+// Reusable Appendable that UTF-8 encodes into one ByteBuffer and hands full buffers to
+// a channel (a file, a socket, or Channels.newChannel(System.out)) in large writes.
+// Unpaired surrogates are written as U+FFFD; close() flushes but leaves the channel open.
+class ChannelAppendable implements Appendable, Flushable, Closeable {
+    private static final char REPLACEMENT = '\uFFFD';
+
+    private WritableByteChannel channel;
+    private ByteBuffer buffer;
+    private char highSurrogate;
+
+    public ChannelAppendable(WritableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(Math.max(bufferSize, 16));
+    }
+
+    @Override
+    public Appendable append(CharSequence text) throws IOException {
+        return append(text, 0, text.length());
+    }
+
+    @Override
+    public Appendable append(CharSequence text, int start, int end) throws IOException {
+        for (int i = start; i < end; i++) {
+            append(text.charAt(i));
+        }
+        return this;
+    }
+
+    @Override
+    public Appendable append(char c) throws IOException {
+        if (buffer.remaining() < 4) {
+            flushBuffer();
+        }
+        if (highSurrogate != 0 && !Character.isLowSurrogate(c)) {
+            putChar(REPLACEMENT);
+            highSurrogate = 0;
+            if (buffer.remaining() < 4) {
+                flushBuffer();
+            }
+        }
+        if (Character.isHighSurrogate(c)) {
+            highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            if (highSurrogate == 0) {
+                putChar(REPLACEMENT);
+                return this;
+            }
+            int codePoint = Character.toCodePoint(highSurrogate, c);
+            highSurrogate = 0;
+            buffer.put((byte) (0xF0 | (codePoint >> 18))).put((byte) (0x80 | ((codePoint >> 12) & 0x3F)))
+                    .put((byte) (0x80 | ((codePoint >> 6) & 0x3F))).put((byte) (0x80 | (codePoint & 0x3F)));
+        } else {
+            putChar(c);
+        }
+        return this;
+    }
+
+    // Encodes one BMP, non-surrogate char; the caller has made room for 3 bytes
+    private void putChar(char c) {
+        if (c < 0x80) {
+            buffer.put((byte) c);
+        } else if (c < 0x800) {
+            buffer.put((byte) (0xC0 | (c >> 6))).put((byte) (0x80 | (c & 0x3F)));
+        } else {
+            buffer.put((byte) (0xE0 | (c >> 12))).put((byte) (0x80 | ((c >> 6) & 0x3F))).put((byte) (0x80 | (c & 0x3F)));
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+    }
+
+    // A high surrogate still waiting for its pair at the end of the text is written as U+FFFD
+    @Override
+    public void close() throws IOException {
+        if (highSurrogate != 0) {
+            if (buffer.remaining() < 3) {
+                flushBuffer();
+            }
+            putChar(REPLACEMENT);
+            highSurrogate = 0;
+        }
+        flushBuffer();
+    }
+}
+
+// ScheduleRegistry.java
+// One independent ScheduleManager per user or resource, created on first use
+class ScheduleRegistry {
+    private ConcurrentHashMap<String, ScheduleManager> schedules = new ConcurrentHashMap<>();
+
+    public ScheduleManager getSchedule(String owner) {
+        return schedules.computeIfAbsent(owner, k -> new ScheduleManager());
+    }
+
+    public ScheduleManager removeSchedule(String owner) {
+        return schedules.remove(owner);
+    }
+
+    public Set<String> getOwners() {
+        return Collections.unmodifiableSet(schedules.keySet());
+    }
+}
+
+// TaskRejection.java
+class TaskRejection {
+    private String source;
+    private String reason;
+
+    public TaskRejection(String source, String reason) {
+        this.source = source;
+        this.reason = reason;
+    }
+
+    // The rejected task's description, or the input line it came from
+    public String getSource() {
+        return source;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    @Override
+    public String toString() {
+        return source + ": " + reason;
+    }
+}
+
+// ImportResult.java
+class ImportResult {
+    private List<Task> accepted = new ArrayList<>();
+    private List<TaskRejection> rejected = new ArrayList<>();
+
+    public void addAccepted(Task task) {
+        accepted.add(task);
+    }
+
+    public void addRejected(Task task, String reason) {
+        rejected.add(new TaskRejection(task.getDescription(), reason));
+    }
+
+    public void addRejected(String source, String reason) {
+        rejected.add(new TaskRejection(source, reason));
+    }
+
+    public List<Task> getAccepted() {
+        return accepted;
+    }
+
+    public List<TaskRejection> getRejected() {
+        return rejected;
+    }
+
+    @Override
+    public String toString() {
+        return "Imported " + accepted.size() + " tasks, rejected " + rejected.size() + ".";
+    }
+}
+
+// TaskCsvImporter.java
+// Streams "description,start,end,priority" lines into one ScheduleManager.addTasks call.
+// The last three fields are split off from the right, so descriptions may contain commas.
+// Blank lines, '#' comments and a leading header line are skipped.
+class TaskCsvImporter {
+    public static ImportResult importFile(Path path, ScheduleManager schedule) throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        List<TaskRejection> unparsable = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#")
+                        || (lineNumber == 1 && line.toLowerCase(Locale.ROOT).startsWith("description,"))) {
+                    continue;
+                }
+                int priorityComma = line.lastIndexOf(',');
+                int endComma = priorityComma > 0 ? line.lastIndexOf(',', priorityComma - 1) : -1;
+                int startComma = endComma > 0 ? line.lastIndexOf(',', endComma - 1) : -1;
+                if (startComma < 0) {
+                    unparsable.add(new TaskRejection("line " + lineNumber, "expected description,start,end,priority"));
+                    continue;
+                }
+                try {
+                    tasks.add(TaskFactory.createTask(line.substring(0, startComma).trim(),
+                            line.substring(startComma + 1, endComma), line.substring(endComma + 1, priorityComma),
+                            line.substring(priorityComma + 1).trim()));
+                } catch (IllegalArgumentException e) {
+                    unparsable.add(new TaskRejection("line " + lineNumber, e.getMessage()));
+                }
+            }
+        }
+        ImportResult result = schedule.addTasks(tasks);
+        for (TaskRejection rejection : unparsable) {
+            result.addRejected(rejection.getSource(), rejection.getReason());
+        }
+        return result;
+    }
+}
+
+// ScheduleJournal.java
+// Append-only write-ahead log of schedule mutations. Appends only encode into an
+// in-memory buffer; a single flusher thread writes whatever has accumulated and
+// forces it with one fsync, so concurrent writers share each commit (group commit).
+// File layout: header [magic int][generation long], then records of
+// [body length int][CRC32 of body int][body]. A torn or corrupt tail is cut off on replay.
+// Once the flusher fails the journal is fail-stop: every later append and wait throws.
+// After a checkpoint, compact() rewrites the file as the next generation holding only
+// the records the snapshot does not cover.
+class ScheduleJournal implements Closeable {
+    static final int MAGIC = 0x534A524E;  // "SJRN"
+    static final int HEADER_SIZE = 12;
+    static final byte ADD = 1;
+    static final byte REMOVE = 2;
+    static final byte COMPLETE = 3;
+
+    private Path path;
+    private FileChannel channel;
+    private long generation;
+    private ByteBuffer pending = ByteBuffer.allocate(64 * 1024);
+    private ByteBuffer writing = ByteBuffer.allocate(64 * 1024);
+    private long appendedSequence;
+    private long durableSequence;
+    private IOException failure;
+    private boolean closed;
+    private boolean compacting;
+    private Thread flusher;
+
+    public ScheduleJournal(Path path) throws IOException {
+        this.path = path;
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() < HEADER_SIZE) {
+            writeHeader(0);
+        } else {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            channel.read(header, 0);
+            header.flip();
+            if (header.getInt() != MAGIC) {
+                channel.close();
+                throw new IOException("Not a schedule journal: " + path);
+            }
+            generation = header.getLong();
+        }
+        flusher = new Thread(this::flushLoop, "schedule-journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    // Each append returns a sequence number to pass to awaitDurable
+    public synchronized long appendAdd(Task task) {
+        byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+        byte[] priority = task.getPriority().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer body = ByteBuffer.allocate(1 + 4 + 4 + 1 + 4 + description.length + 4 + priority.length);
+        body.put(ADD).putInt(task.getStartMinute()).putInt(task.getEndMinute()).put((byte) (task.isCompleted() ? 1 : 0));
+        body.putInt(description.length).put(description).putInt(priority.length).put(priority);
+        return append(body.array());
+    }
+
+    public synchronized long appendRemove(int startMinute) {
+        return append(ByteBuffer.allocate(5).put(REMOVE).putInt(startMinute).array());
+    }
+
+    public synchronized long appendComplete(int startMinute) {
+        return append(ByteBuffer.allocate(5).put(COMPLETE).putInt(startMinute).array());
+    }
+
+    private long append(byte[] body) {
+        boolean interrupted = false;
+        while (compacting) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+        if (failure != null) {
+            throw new UncheckedIOException("Journal has failed; no further writes are accepted", failure);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        pending = ensureCapacity(pending, 8 + body.length);
+        pending.putInt(body.length).putInt((int) crc.getValue()).put(body);
+        notifyAll();
+        return ++appendedSequence;
+    }
+
+    private static ByteBuffer ensureCapacity(ByteBuffer buffer, int extra) {
+        if (buffer.remaining() >= extra) {
+            return buffer;
+        }
+        ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + extra));
+        buffer.flip();
+        return larger.put(buffer);
+    }
+
+    // Blocks until the record with this sequence number has been forced to disk
+    public synchronized void awaitDurable(long sequence) {
+        boolean interrupted = false;
+        while (durableSequence < sequence && failure == null) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (durableSequence < sequence) {
+            throw new UncheckedIOException("Journal write failed", failure);
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            long batchSequence;
+            synchronized (this) {
+                while (pending.position() == 0 && !closed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        fail(new InterruptedIOException("Journal flusher interrupted"));
+                        return;
+                    }
+                }
+                if (pending.position() == 0) {
+                    return;
+                }
+                ByteBuffer swap = writing;
+                writing = pending;
+                pending = swap;
+                batchSequence = appendedSequence;
+            }
+            try {
+                writing.flip();
+                long position = channel.size();
+                while (writing.hasRemaining()) {
+                    position += channel.write(writing, position);
+                }
+                channel.force(false);
+                writing.clear();
+                synchronized (this) {
+                    durableSequence = batchSequence;
+                    notifyAll();
+                }
+            } catch (IOException e) {
+                fail(e);
+                return;
+            } catch (RuntimeException | Error e) {
+                fail(new IOException("Journal flusher died", e));
+                throw e;
+            }
+        }
+    }
+
+    // Wakes every waiter; records still pending will never be written
+    private synchronized void fail(IOException e) {
+        if (failure == null) {
+            failure = e;
+        }
+        notifyAll();
+    }
+
+    public synchronized boolean isFailed() {
+        return failure != null;
+    }
+
+    // Replays every intact record from fromOffset on into the schedule, then truncates any
+    // torn tail. Records before fromOffset are already in the snapshot.
+    public void replay(ScheduleManager schedule, long fromOffset) throws IOException {
+        long size = channel.size();
+        if (size <= fromOffset) {
+            return;
+        }
+        MappedByteBuffer log = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        log.position((int) fromOffset);
+        CRC32 crc = new CRC32();
+        long validEnd = fromOffset;
+        while (log.remaining() >= 8) {
+            int length = log.getInt();
+            int checksum = log.getInt();
+            if (length <= 0 || length > log.remaining()) {
+                break;
+            }
+            ByteBuffer body = log.slice();
+            body.limit(length);
+            crc.reset();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            apply(body, schedule);
+            log.position(log.position() + length);
+            validEnd = log.position();
+        }
+        if (validEnd < size) {
+            channel.truncate(validEnd);
+            channel.force(true);
+        }
+    }
+
+    private static void apply(ByteBuffer body, ScheduleManager schedule) {
+        byte op = body.get();
+        int startMinute = body.getInt();
+        if (op == ADD) {
+            int endMinute = body.getInt();
+            boolean completed = body.get() != 0;
+            String description = readString(body);
+            Task task = new Task(description, startMinute, endMinute, readString(body));
+            if (completed) {
                 task.markAsCompleted();
-                System.out.println("Task marked as completed: " + description);
+            }
+            schedule.tryAddTask(task);
+        } else if (op == REMOVE) {
+            schedule.takeTaskAt(startMinute);
+        } else if (op == COMPLETE) {
+            schedule.completeTaskAt(startMinute);
+        }
+    }
+
+    static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Byte offset just past the last appended record, once that record is durable. Called
+    // under the schedule's read lock, so no append can slip in before the offset is read.
+    public synchronized long position() throws IOException {
+        awaitDurable(appendedSequence);
+        return channel.size();
+    }
+
+    // A snapshot now covers this generation up to coveredOffset: rewrite the journal as the
+    // next generation holding only the records after it. Appends wait while this runs; the
+    // new file replaces the old one by an atomic rename, so a crash leaves one or the other.
+    public synchronized void compact(long coveredGeneration, long coveredOffset) throws IOException {
+        if (generation != coveredGeneration) {
+            return;
+        }
+        compacting = true;
+        try {
+            awaitDurable(appendedSequence);
+            long size = channel.size();
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putLong(generation + 1);
+                header.flip();
+                while (header.hasRemaining()) {
+                    out.write(header);
+                }
+                for (long copied = coveredOffset; copied < size; ) {
+                    copied += channel.transferTo(copied, size - copied, out);
+                }
+                out.force(true);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            FileChannel old = channel;
+            try {
+                channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            } catch (IOException e) {
+                fail(e);  // the old channel now points at an unlinked file
+                throw e;
+            }
+            old.close();
+            generation++;
+        } finally {
+            compacting = false;
+            notifyAll();
+        }
+    }
+
+    // Drops every record and starts a new generation once a snapshot covers them
+    public synchronized void reset(long newGeneration) throws IOException {
+        awaitDurable(appendedSequence);
+        channel.truncate(HEADER_SIZE);
+        writeHeader(newGeneration);
+    }
+
+    private void writeHeader(long newGeneration) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putLong(newGeneration);
+        header.flip();
+        channel.write(header, 0);
+        channel.force(true);
+        generation = newGeneration;
+    }
+
+    public long size() throws IOException {
+        return channel.size();
+    }
+
+    // The flusher drains what is pending before it exits; a failed journal still closes
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
                 return;
             }
+            closed = true;
+            notifyAll();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        synchronized (this) {
+            if (failure != null) {
+                throw new IOException("Journal write failed", failure);
+            }
         }
-        System.out.println("Error: Task not found.");
     }
+}
 
-    // Check if the new task conflicts with existing tasks
-    private boolean isConflict(Task newTask) {
-        for (Task task : taskMap.values()) {
-            if (!(newTask.getEndTime().compareTo(task.getStartTime()) <= 0 || newTask.getStartTime().compareTo(task.getEndTime()) >= 0)) {
-                return true;
+// ScheduleSnapshot.java
+// Compact binary image of a schedule: [magic int][journal generation long][journal offset long]
+// [priority count int][priorities...][task count int][tasks...], with each task as
+// [start int][end int][completed byte][priority index int][description]. Strings are
+// length-prefixed UTF-8; priorities are stored once and referenced by index.
+// Written to a temporary file and atomically renamed; loaded through a memory map.
+// The snapshot covers every journal record of older generations, plus the records of its
+// own generation before the journal offset.
+class ScheduleSnapshot {
+    static final int MAGIC = 0x53534E32;  // "SSN2"
+
+    private Path path;
+    private long journalOffset = ScheduleJournal.HEADER_SIZE;
+
+    public ScheduleSnapshot(Path path) {
+        this.path = path;
+    }
+
+    // Journal offset covered by the last snapshot loaded
+    public long getJournalOffset() {
+        return journalOffset;
+    }
+
+    public void write(Task[] tasks, boolean[] completed, long generation, long journalOffset) throws IOException {
+        Map<String, Integer> priorityIds = new LinkedHashMap<>();
+        for (Task task : tasks) {
+            priorityIds.putIfAbsent(task.getPriority(), priorityIds.size());
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(256 * 1024);
+            buffer.putInt(MAGIC).putLong(generation).putLong(journalOffset).putInt(priorityIds.size());
+            for (String priority : priorityIds.keySet()) {
+                buffer = putString(channel, buffer, priority);
             }
+            buffer.putInt(tasks.length);
+            for (int i = 0; i < tasks.length; i++) {
+                Task task = tasks[i];
+                buffer = reserve(channel, buffer, 13);
+                buffer.putInt(task.getStartMinute()).putInt(task.getEndMinute())
+                        .put((byte) (completed[i] ? 1 : 0)).putInt(priorityIds.get(task.getPriority()));
+                buffer = putString(channel, buffer, task.getDescription());
+            }
+            drain(channel, buffer);
+            channel.force(true);
         }
-        return false;
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static ByteBuffer putString(FileChannel channel, ByteBuffer buffer, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer = reserve(channel, buffer, 4 + bytes.length);
+        return buffer.putInt(bytes.length).put(bytes);
+    }
+
+    // Flushes the buffer to the channel when the next field would not fit
+    private static ByteBuffer reserve(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            drain(channel, buffer);
+            if (buffer.capacity() < bytes) {
+                buffer = ByteBuffer.allocate(bytes);
+            }
+        }
+        return buffer;
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // Loads the snapshot into an empty schedule; returns the journal generation it covers
+    public long load(ScheduleManager schedule) throws IOException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer image = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (image.getInt() != MAGIC) {
+                throw new IOException("Not a schedule snapshot: " + path);
+            }
+            long generation = image.getLong();
+            journalOffset = image.getLong();
+            String[] priorities = new String[image.getInt()];
+            for (int i = 0; i < priorities.length; i++) {
+                priorities[i] = ScheduleJournal.readString(image);
+            }
+            int count = image.getInt();
+            List<Task> tasks = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int startMinute = image.getInt();
+                int endMinute = image.getInt();
+                boolean completed = image.get() != 0;
+                String priority = priorities[image.getInt()];
+                Task task = new Task(ScheduleJournal.readString(image), startMinute, endMinute, priority);
+                if (completed) {
+                    task.markAsCompleted();
+                }
+                tasks.add(task);
+            }
+            schedule.addTasks(tasks);
+            return generation;
+        }
+    }
+}
+
+// ScheduleStore.java
+// Durable home for one schedule: a snapshot plus the journal of changes since it.
+// Recovery loads the snapshot and replays only the journal tail; checkpoint() writes
+// a fresh snapshot and starts a journal generation holding only what came after it.
+class ScheduleStore implements Closeable {
+    private ScheduleSnapshot snapshot;
+    private ScheduleJournal journal;
+    private ScheduleManager schedule;
+    private ScheduledExecutorService checkpointer;
+
+    public ScheduleStore(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        snapshot = new ScheduleSnapshot(directory.resolve("schedule.snapshot"));
+        journal = new ScheduleJournal(directory.resolve("schedule.journal"));
+    }
+
+    // Rebuilds the schedule from disk and attaches the journal to it
+    public ScheduleManager recover() throws IOException {
+        schedule = new ScheduleManager();
+        long covered = snapshot.load(schedule);
+        // A crash between writing a snapshot and compacting the journal leaves the covered
+        // generation behind; its records before the snapshot's offset are skipped
+        if (journal.getGeneration() == covered) {
+            journal.replay(schedule, snapshot.getJournalOffset());
+        } else if (journal.getGeneration() > covered) {
+            journal.replay(schedule, ScheduleJournal.HEADER_SIZE);
+        } else {
+            journal.reset(covered + 1);
+        }
+        schedule.attachJournal(journal);
+        return schedule;
+    }
+
+    public void checkpoint() throws IOException {
+        schedule.checkpoint(snapshot, journal);
+    }
+
+    // Checkpoints in the background whenever the journal has grown past maxJournalBytes
+    public void startPeriodicCheckpoints(long period, TimeUnit unit, long maxJournalBytes) {
+        checkpointer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "schedule-checkpointer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checkpointer.scheduleWithFixedDelay(() -> {
+            try {
+                if (journal.size() > maxJournalBytes) {
+                    checkpoint();
+                }
+            } catch (IOException e) {
+                System.out.println("Checkpoint failed: " + e.getMessage());
+            }
+        }, period, period, unit);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (checkpointer != null) {
+            checkpointer.shutdown();
+            try {
+                // let a running periodic checkpoint finish before the final one
+                checkpointer.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (schedule != null) {
+            checkpoint();
+        }
+        journal.close();
     }
 }
 
@@ -163,8 +1943,21 @@ class ConflictNotifier implements TaskObserver {
 
 // Main.java
 public class Main {
+    // Optional argument: a directory to persist the schedule in
     public static void main(String[] args) {
+        ScheduleStore store = null;
         ScheduleManager scheduleManager = ScheduleManager.getInstance();
+        if (args.length > 0) {
+            try {
+                store = new ScheduleStore(Paths.get(args[0]));
+                scheduleManager = store.recover();
+                store.startPeriodicCheckpoints(1, TimeUnit.MINUTES, 16L * 1024 * 1024);
+                System.out.println("Loaded " + scheduleManager.size() + " tasks from " + args[0]);
+            } catch (IOException e) {
+                System.out.println("Error: could not open schedule store: " + e.getMessage());
+                return;
+            }
+        }
         scheduleManager.addTaskObserver(new ConflictNotifier());
         Scanner scanner = new Scanner(System.in);
 
@@ -173,7 +1966,8 @@ public class Main {
             System.out.println("2. Remove Task");
             System.out.println("3. View Tasks");
             System.out.println("4. Mark Task as Completed");
-            System.out.println("5. Exit");
+            System.out.println("5. Import Tasks from CSV");
+            System.out.println("6. Exit");
             System.out.print("Choose an option: ");
             int choice = scanner.nextInt();
             scanner.nextLine();  // Consume the newline
@@ -182,15 +1976,19 @@ public class Main {
                 case 1:
                     System.out.print("Enter task description: ");
                     String description = scanner.nextLine();
-                    System.out.print("Enter start time (HH:MM): ");
+                    System.out.print("Enter start time (HH:MM or YYYY-MM-DD HH:MM): ");
                     String startTime = scanner.nextLine();
-                    System.out.print("Enter end time (HH:MM): ");
+                    System.out.print("Enter end time (HH:MM or YYYY-MM-DD HH:MM): ");
                     String endTime = scanner.nextLine();
                     System.out.print("Enter priority (High/Medium/Low): ");
                     String priority = scanner.nextLine();
 
-                    Task task = TaskFactory.createTask(description, startTime, endTime, priority);
-                    scheduleManager.addTask(task);
+                    try {
+                        Task task = TaskFactory.createTask(description, startTime, endTime, priority);
+                        scheduleManager.addTask(task);
+                    } catch (IllegalArgumentException e) {
+                        System.out.println("Error: " + e.getMessage());
+                    }
                     break;
 
                 case 2:
@@ -210,8 +2008,33 @@ public class Main {
                     break;
 
                 case 5:
+                    System.out.print("Enter CSV file path (description,start,end,priority): ");
+                    String csvPath = scanner.nextLine();
+                    try {
+                        ImportResult result = TaskCsvImporter.importFile(Paths.get(csvPath), scheduleManager);
+                        System.out.println(result);
+                        List<TaskRejection> rejected = result.getRejected();
+                        for (int i = 0; i < rejected.size() && i < 10; i++) {
+                            System.out.println("- " + rejected.get(i));
+                        }
+                        if (rejected.size() > 10) {
+                            System.out.println("- ... and " + (rejected.size() - 10) + " more");
+                        }
+                    } catch (IOException e) {
+                        System.out.println("Error: " + e.getMessage());
+                    }
+                    break;
+
+                case 6:
                     System.out.println("Exiting the application.");
                     scanner.close();
+                    if (store != null) {
+                        try {
+                            store.close();
+                        } catch (IOException e) {
+                            System.out.println("Error: could not save schedule: " + e.getMessage());
+                        }
+                    }
                     return;
 
                 default: